@@ -0,0 +1,220 @@
+package project_management_api.project_management_api.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Codec do payload escolhido por conexão STOMP: o cliente manda o header "codec" (json, cbor ou smile) no CONNECT.
+// Só vale no endpoint nativo (/ws); pelo SockJS, que não tem frame binário, fica JSON.
+// Os broadcasts continuam sendo serializados uma vez, em JSON, e são convertidos no canal de saída para as sessões
+// que pediram binário. A conversão é por streaming, sem montar árvore, e o resultado é reaproveitado para os
+// outros inscritos do mesmo broadcast, que o broker entrega em sequência na mesma thread.
+// O Spring só escreve frame binário quando o content-type é application/octet-stream, por isso a saída vai como
+// application/octet-stream;codec=cbor (ou smile). Na entrada, o cliente usa application/cbor ou
+// application/x-jackson-smile, lidos pelos conversores de converters().
+@Component
+public class StompPayloadCodec {
+
+    private static final Logger log = LoggerFactory.getLogger(StompPayloadCodec.class);
+
+    public static final String NATIVE_SESSION_ATTRIBUTE = "stomp.native";
+    public static final String CODEC_HEADER = "codec";
+
+    public enum Codec {
+        JSON(new JsonFactory(), MimeTypeUtils.APPLICATION_JSON),
+        CBOR(new CBORFactory(), new MimeType("application", "cbor")),
+        SMILE(new SmileFactory(), new MimeType("application", "x-jackson-smile"));
+
+        private final JsonFactory factory;
+        private final MimeType inboundType;
+        private final MimeType outboundType;
+
+        Codec(JsonFactory factory, MimeType inboundType) {
+            this.factory = factory;
+            this.inboundType = inboundType;
+            this.outboundType = new MimeType(MimeTypeUtils.APPLICATION_OCTET_STREAM,
+                    Map.of(CODEC_HEADER, name().toLowerCase(Locale.ROOT)));
+        }
+
+        public MimeType getOutboundType() {
+            return outboundType;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Codec> codecBySession = new ConcurrentHashMap<>();
+    // Último payload convertido por thread: os inscritos de um broadcast recebem o mesmo array
+    private final ThreadLocal<Encoded> lastEncoded = new ThreadLocal<>();
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+
+    public StompPayloadCodec(MeterRegistry meterRegistry,
+            @Value("${stomp.binary-codec.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    // Conversores para SEND em binário; estritos, para não pegarem payloads sem content-type
+    public List<MessageConverter> converters() {
+        return List.of(converter(Codec.CBOR), converter(Codec.SMILE));
+    }
+
+    public ChannelInterceptor inboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+                if (type == SimpMessageType.CONNECT) {
+                    register(SimpMessageHeaderAccessor.wrap(message));
+                } else if (type == SimpMessageType.DISCONNECT) {
+                    String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+                    if (sessionId != null) {
+                        codecBySession.remove(sessionId);
+                    }
+                }
+                return message;
+            }
+        };
+    }
+
+    public ChannelInterceptor outboundInterceptor() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                return encode(message);
+            }
+        };
+    }
+
+    private void register(SimpMessageHeaderAccessor accessor) {
+        String requested = accessor.getFirstNativeHeader(CODEC_HEADER);
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (!enabled || requested == null || accessor.getSessionId() == null || attributes == null
+                || !Boolean.TRUE.equals(attributes.get(NATIVE_SESSION_ATTRIBUTE))) {
+            return;
+        }
+
+        try {
+            Codec codec = Codec.valueOf(requested.trim().toUpperCase(Locale.ROOT));
+            if (codec != Codec.JSON) {
+                codecBySession.put(accessor.getSessionId(), codec);
+            }
+        } catch (IllegalArgumentException ex) {
+            log.debug("Codec STOMP desconhecido \"{}\", a sessão {} segue em JSON", requested,
+                    accessor.getSessionId());
+        }
+    }
+
+    private Message<?> encode(Message<?> message) {
+        if (codecBySession.isEmpty()
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Codec codec = sessionId != null ? codecBySession.get(sessionId) : null;
+        MimeType contentType = contentType(message);
+        if (codec == null || !(message.getPayload() instanceof byte[] json) || contentType == null
+                || !MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(contentType)) {
+            return message;
+        }
+
+        byte[] encoded;
+        try {
+            encoded = encode(json, codec);
+        } catch (IOException ex) {
+            log.warn("Falha ao converter payload STOMP para {}: {}", codec, ex.getMessage());
+            return message;
+        }
+
+        MessageHeaderAccessor accessor = MessageHeaderAccessor.getMutableAccessor(message);
+        accessor.setContentType(codec.outboundType);
+        return MessageBuilder.createMessage(encoded, accessor.getMessageHeaders());
+    }
+
+    private byte[] encode(byte[] json, Codec codec) throws IOException {
+        Encoded last = lastEncoded.get();
+        if (last != null && last.source == json && last.codec == codec) {
+            return last.result;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+        try (JsonParser parser = Codec.JSON.factory.createParser(json);
+                JsonGenerator generator = codec.factory.createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+        byte[] result = out.toByteArray();
+        lastEncoded.set(new Encoded(json, codec, result));
+
+        // Tamanho do mesmo payload em JSON e no codec da sessão, para comparar a economia de banda
+        payloadSize(Codec.JSON).record(json.length);
+        payloadSize(codec).record(result.length);
+        return result;
+    }
+
+    private DistributionSummary payloadSize(Codec codec) {
+        return DistributionSummary.builder("stomp.codec.payload.bytes")
+                .description("Tamanho dos broadcasts convertidos, antes (json) e depois da conversão")
+                .baseUnit("bytes")
+                .tag("codec", codec.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry);
+    }
+
+    private static MimeType contentType(Message<?> message) {
+        Object value = message.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        if (value instanceof MimeType mimeType) {
+            return mimeType;
+        }
+        return value instanceof String text ? MimeTypeUtils.parseMimeType(text) : null;
+    }
+
+    private static MessageConverter converter(Codec codec) {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter(codec.inboundType);
+        converter.setObjectMapper(new ObjectMapper(codec.factory).findAndRegisterModules());
+        converter.setStrictContentTypeMatch(true);
+        return converter;
+    }
+
+    private static final class Encoded {
+
+        private final byte[] source;
+        private final Codec codec;
+        private final byte[] result;
+
+        private Encoded(byte[] source, Codec codec, byte[] result) {
+            this.source = source;
+            this.codec = codec;
+            this.result = result;
+        }
+    }
+}
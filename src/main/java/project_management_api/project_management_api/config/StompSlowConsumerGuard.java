@@ -0,0 +1,143 @@
+package project_management_api.project_management_api.config;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Proteção contra clientes STOMP lentos. Quem fecha a sessão é o decorador de envio do próprio Spring, quando a
+// escrita passa de send-time-limit-ms ou o buffer passa de send-buffer-size-limit. Este guarda fica por baixo
+// dele, mede há quanto tempo a escrita em curso de cada sessão está parada e, com a política DROP, descarta no
+// canal de saída as mensagens de tópico para sessões paradas há mais de degrade-after-ms: o buffer da sessão
+// não enche com broadcasts e ela só é desconectada se continuar parada até o limite.
+@Component
+public class StompSlowConsumerGuard implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    public enum Policy {
+        DISCONNECT,
+        DROP
+    }
+
+    private final ConcurrentHashMap<String, TrackedSession> sessions = new ConcurrentHashMap<>();
+    private final Policy policy;
+    private final long degradeAfterNanos;
+    private final Counter droppedMessages;
+    private final Counter terminatedSessions;
+
+    public StompSlowConsumerGuard(MeterRegistry meterRegistry,
+            @Value("${stomp.slow-consumer.policy:DISCONNECT}") Policy policy,
+            @Value("${stomp.slow-consumer.degrade-after-ms:1000}") long degradeAfterMs) {
+        this.policy = policy;
+        this.degradeAfterNanos = TimeUnit.MILLISECONDS.toNanos(degradeAfterMs);
+
+        Gauge.builder("stomp.sessions.open", sessions, ConcurrentHashMap::size)
+                .description("Sessões WebSocket abertas")
+                .register(meterRegistry);
+        Gauge.builder("stomp.sessions.stalled", this, StompSlowConsumerGuard::countStalled)
+                .description("Sessões com uma escrita parada há mais de degrade-after-ms")
+                .register(meterRegistry);
+        this.droppedMessages = Counter.builder("stomp.slow-consumer.dropped-messages")
+                .description("Mensagens de tópico descartadas para sessões paradas")
+                .register(meterRegistry);
+        this.terminatedSessions = Counter.builder("stomp.slow-consumer.terminated-sessions")
+                .description("Sessões fechadas por estourar o tempo ou o buffer de envio")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                TrackedSession tracked = new TrackedSession(session);
+                sessions.put(session.getId(), tracked);
+                super.afterConnectionEstablished(tracked);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    // Roda na thread que publica (broker), antes de a mensagem ir para a fila do canal de saída
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (policy != Policy.DROP
+                || SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (destination == null || !destination.startsWith("/topic/") || sessionId == null) {
+            return message;
+        }
+
+        TrackedSession session = sessions.get(sessionId);
+        if (session != null && session.isStalled(System.nanoTime())) {
+            droppedMessages.increment();
+            return null;
+        }
+        return message;
+    }
+
+    private double countStalled() {
+        long now = System.nanoTime();
+        return sessions.values().stream().filter(session -> session.isStalled(now)).count();
+    }
+
+    // O Spring embrulha esta sessão no seu decorador de envio, que chama sendMessage uma escrita por vez
+    private final class TrackedSession extends WebSocketSessionDecorator {
+
+        // 0 quando não há escrita em curso
+        private volatile long sendStartedAt;
+
+        private TrackedSession(WebSocketSession session) {
+            super(session);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            sendStartedAt = System.nanoTime();
+            try {
+                super.sendMessage(message);
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+
+        @Override
+        public void close(CloseStatus status) throws IOException {
+            if (CloseStatus.SESSION_NOT_RELIABLE.equals(status)) {
+                terminatedSessions.increment();
+            }
+            super.close(status);
+        }
+
+        private boolean isStalled(long now) {
+            long started = sendStartedAt;
+            return started != 0 && now - started > degradeAfterNanos;
+        }
+    }
+}
@@ -1,21 +1,85 @@
 package project_management_api.project_management_api.config;
 
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    public enum ExecutorType {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    private static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+
+    private final StompSlowConsumerGuard slowConsumerGuard;
+    private final StompPayloadCodec payloadCodec;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorType executorType;
+    private final int inboundThreads;
+    private final int inboundQueueCapacity;
+    private final int outboundThreads;
+    private final int outboundQueueCapacity;
+    private final int sendTimeLimitMs;
+    private final int sendBufferSizeLimit;
+    private final int messageSizeLimit;
+    private final boolean permessageDeflate;
+
+    public WebSocketConfig(StompSlowConsumerGuard slowConsumerGuard, StompPayloadCodec payloadCodec,
+            MeterRegistry meterRegistry,
+            @Value("${stomp.channel.executor:PLATFORM}") ExecutorType executorType,
+            @Value("${stomp.channel.inbound.threads:16}") int inboundThreads,
+            @Value("${stomp.channel.inbound.queue-capacity:10000}") int inboundQueueCapacity,
+            @Value("${stomp.channel.outbound.threads:16}") int outboundThreads,
+            @Value("${stomp.channel.outbound.queue-capacity:10000}") int outboundQueueCapacity,
+            @Value("${stomp.transport.send-time-limit-ms:10000}") int sendTimeLimitMs,
+            @Value("${stomp.transport.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+            @Value("${stomp.transport.message-size-limit:65536}") int messageSizeLimit,
+            @Value("${stomp.native.permessage-deflate:true}") boolean permessageDeflate) {
+        this.slowConsumerGuard = slowConsumerGuard;
+        this.payloadCodec = payloadCodec;
+        this.meterRegistry = meterRegistry;
+        this.executorType = executorType;
+        this.inboundThreads = inboundThreads;
+        this.inboundQueueCapacity = inboundQueueCapacity;
+        this.outboundThreads = outboundThreads;
+        this.outboundQueueCapacity = outboundQueueCapacity;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.messageSizeLimit = messageSizeLimit;
+        this.permessageDeflate = permessageDeflate;
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Ativa um broker simples, que envia mensagens para tópicos "/topic"
-        config.enableSimpleBroker("/topic");
+        // Broker simples: "/topic" vai para todos os inscritos, "/queue" para as sessões de um usuário (/user/queue)
+        config.enableSimpleBroker("/topic", "/queue");
         // Prefixo para endpoints do lado do cliente que envia mensagens
         config.setApplicationDestinationPrefixes("/app");
+        // Com várias threads no canal de saída, mantém a ordem das mensagens de cada sessão
+        config.setPreservePublishOrder(true);
     }
 
     @Override
@@ -24,5 +88,105 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws-message")
                 .setAllowedOriginPatterns("*")
                 .withSockJS();
+
+        // WebSocket nativo, sem SockJS: frames binários (StompPayloadCodec) e compressão permessage-deflate,
+        // negociada com o cliente no handshake pelo próprio container
+        registry.addEndpoint("/ws")
+                .setAllowedOriginPatterns("*")
+                .setHandshakeHandler(new ExtensionFilteringHandshakeHandler(permessageDeflate))
+                .addInterceptors(new NativeSessionMarker());
+    }
+
+    // Conversores binários antes dos padrões (String, byte[] e JSON), que continuam registrados
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.addAll(payloadCodec.converters());
+        return true;
+    }
+
+    // Os handlers de @MessageMapping rodam aqui e bloqueiam em JDBC; com VIRTUAL, o bloqueio não prende
+    // uma thread de plataforma
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(executor("inbound", inboundThreads, inboundQueueCapacity));
+        registration.interceptors(payloadCodec.inboundInterceptor());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(executor("outbound", outboundThreads, outboundQueueCapacity));
+        // O descarte de sessões paradas vem antes, para não converter o que não vai ser enviado
+        registration.interceptors(slowConsumerGuard, payloadCodec.outboundInterceptor());
+    }
+
+    // Uma sessão que não esvazia o buffer no tempo limite é fechada pelo Spring; o guarda mede e degrada antes
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(slowConsumerGuard);
+    }
+
+    // Inicializado pelo Spring, que expõe o executor como bean de cada canal
+    private ThreadPoolTaskExecutor executor(String channel, int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setAllowCoreThreadTimeOut(true);
+        if (executorType == ExecutorType.VIRTUAL) {
+            // O pool só limita quantos handlers rodam ao mesmo tempo; cada um ganha uma thread virtual
+            executor.setThreadFactory(Thread.ofVirtual().name("stomp-" + channel + "-", 0).factory());
+        }
+
+        Gauge.builder("stomp.channel.queue", executor, pool -> pool.getThreadPoolExecutor().getQueue().size())
+                .description("Mensagens aguardando thread no canal STOMP")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        Gauge.builder("stomp.channel.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Threads ocupadas no canal STOMP")
+                .tag("channel", channel)
+                .register(meterRegistry);
+        return executor;
+    }
+
+    // Sem permessage-deflate, a extensão é recusada no handshake mesmo que cliente e container a suportem
+    private static final class ExtensionFilteringHandshakeHandler extends DefaultHandshakeHandler {
+
+        private final boolean permessageDeflate;
+
+        private ExtensionFilteringHandshakeHandler(boolean permessageDeflate) {
+            this.permessageDeflate = permessageDeflate;
+        }
+
+        @Override
+        protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                List<WebSocketExtension> requestedExtensions, List<WebSocketExtension> supportedExtensions) {
+            List<WebSocketExtension> accepted = super.filterRequestedExtensions(request, requestedExtensions,
+                    supportedExtensions);
+            if (permessageDeflate) {
+                return accepted;
+            }
+            return accepted.stream()
+                    .filter(extension -> !PERMESSAGE_DEFLATE.equalsIgnoreCase(extension.getName()))
+                    .toList();
+        }
+    }
+
+    // Marca a sessão como WebSocket nativo; só nela o StompPayloadCodec aceita codec binário
+    private static final class NativeSessionMarker implements HandshakeInterceptor {
+
+        @Override
+        public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                WebSocketHandler wsHandler, Map<String, Object> attributes) {
+            attributes.put(StompPayloadCodec.NATIVE_SESSION_ATTRIBUTE, Boolean.TRUE);
+            return true;
+        }
+
+        @Override
+        public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                WebSocketHandler wsHandler, Exception exception) {
+        }
     }
 }
@@ -1,17 +1,19 @@
 package project_management_api.project_management_api.controller;
 
-import java.util.List;
-
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import project_management_api.project_management_api.dto.ChatReadStateReturnDTO;
+import project_management_api.project_management_api.dto.MessagePageReturnDTO;
 import project_management_api.project_management_api.dto.MessageReturnDTO;
+import project_management_api.project_management_api.dto.MessageSearchPageReturnDTO;
 import project_management_api.project_management_api.service.MessageService;
 
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 @RestController
@@ -29,10 +31,33 @@ public class MessageController {
         return ResponseEntity.ok(messageService.getMessageById(id));
     }
 
+    // Histórico do chat do projeto, paginado: before recebe o nextCursor da página anterior
+    @GetMapping("/projects/{projectId}")
+    public ResponseEntity<MessagePageReturnDTO> getProjectHistory(@PathVariable Integer projectId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(messageService.getProjectHistory(projectId, before, limit));
+    }
+
+    // Cursor de leitura do usuário no chat do projeto e quantas mensagens chegaram depois dele
+    @GetMapping("/projects/{projectId}/read")
+    public ResponseEntity<ChatReadStateReturnDTO> getChatReadState(@PathVariable Integer projectId) {
+        return ResponseEntity.ok(messageService.getChatReadState(projectId));
+    }
+
+    // Marca como lidas todas as mensagens do projeto até upTo, inclusive
+    @PutMapping("/projects/{projectId}/read")
+    public ResponseEntity<ChatReadStateReturnDTO> markProjectRead(@PathVariable Integer projectId,
+            @RequestParam Integer upTo) {
+        return ResponseEntity.ok(messageService.markProjectRead(projectId, upTo));
+    }
+
     @GetMapping("/search")
-    public ResponseEntity<List<MessageReturnDTO>> search(@RequestParam Integer projectId,
-            @RequestParam String text) {
-        return ResponseEntity.ok(messageService.search(projectId, text));
+    public ResponseEntity<MessageSearchPageReturnDTO> search(@RequestParam Integer projectId,
+            @RequestParam String text,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(messageService.search(projectId, text, page, limit));
     }
 
     @DeleteMapping("/{id}")
@@ -1,17 +1,27 @@
 package project_management_api.project_management_api.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import project_management_api.project_management_api.dto.NotificationBulkReadReturnDTO;
+import project_management_api.project_management_api.dto.NotificationPageReturnDTO;
+import project_management_api.project_management_api.dto.NotificationPreferenceDTO;
 import project_management_api.project_management_api.dto.NotificationReturnDTO;
+import project_management_api.project_management_api.dto.NotificationUnreadCountReturnDTO;
+import project_management_api.project_management_api.enums.NotificationStatus;
+import project_management_api.project_management_api.service.NotificationPreferenceService;
 import project_management_api.project_management_api.service.NotificationService;
 
 @RestController
@@ -19,19 +29,40 @@ import project_management_api.project_management_api.service.NotificationService
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationPreferenceService notificationPreferenceService;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService,
+            NotificationPreferenceService notificationPreferenceService) {
         this.notificationService = notificationService;
+        this.notificationPreferenceService = notificationPreferenceService;
     }
 
     @GetMapping("/me")
-    public ResponseEntity<List<NotificationReturnDTO>> getNotificationsByUser() {
-        return ResponseEntity.ok(notificationService.getNotificationsByUser());
+    public ResponseEntity<NotificationPageReturnDTO> getNotificationsByUser(
+            @RequestParam(required = false) NotificationStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(notificationService.getNotificationsByUser(status, cursor, limit));
     }
 
     @GetMapping("/me/not-read")
-    public ResponseEntity<List<NotificationReturnDTO>> getNotificationsNotRead() {
-        return ResponseEntity.ok(notificationService.getNotificationsNotRead());
+    public ResponseEntity<NotificationPageReturnDTO> getNotificationsNotRead(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(notificationService.getNotificationsNotRead(cursor, limit));
+    }
+
+    // Notificações ainda não recebidas pelo cliente; pagina por id com "after" (o último id da página anterior)
+    @GetMapping("/me/undelivered")
+    public ResponseEntity<List<NotificationReturnDTO>> getUndeliveredNotifications(
+            @RequestParam(required = false) Integer after,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(notificationService.getUndeliveredNotifications(after, limit));
+    }
+
+    @GetMapping("/me/unread-count")
+    public ResponseEntity<NotificationUnreadCountReturnDTO> getUnreadCount() {
+        return ResponseEntity.ok(notificationService.getUnreadCount());
     }
 
     @PutMapping("/{notificationId}/read")
@@ -40,10 +71,33 @@ public class NotificationController {
     }
 
     @PutMapping("/me/read-all")
-    public ResponseEntity<List<NotificationReturnDTO>> markAllRead() {
+    public ResponseEntity<NotificationBulkReadReturnDTO> markAllRead() {
         return ResponseEntity.ok(notificationService.markAllRead());
     }
 
+    @PutMapping("/me/read")
+    public ResponseEntity<NotificationBulkReadReturnDTO> markReadByIds(@RequestBody List<Integer> notificationIds) {
+        return ResponseEntity.ok(notificationService.markReadByIds(notificationIds));
+    }
+
+    @PutMapping("/me/read-range")
+    public ResponseEntity<NotificationBulkReadReturnDTO> markReadByTimeRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(notificationService.markReadByTimeRange(from, to));
+    }
+
+    @GetMapping("/me/preferences/{projectId}")
+    public ResponseEntity<NotificationPreferenceDTO> getPreferences(@PathVariable Integer projectId) {
+        return ResponseEntity.ok(notificationPreferenceService.getPreferences(projectId));
+    }
+
+    @PutMapping("/me/preferences/{projectId}")
+    public ResponseEntity<NotificationPreferenceDTO> updatePreferences(@PathVariable Integer projectId,
+            @RequestBody NotificationPreferenceDTO preferencesDto) {
+        return ResponseEntity.ok(notificationPreferenceService.updatePreferences(projectId, preferencesDto));
+    }
+
     @DeleteMapping("/{notificationId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteNotification(@PathVariable Integer notificationId) {
@@ -2,25 +2,36 @@ package project_management_api.project_management_api.controller;
 
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import project_management_api.project_management_api.service.SseBatchingWriter;
+import project_management_api.project_management_api.service.SseSubscriptionRegistry;
+import project_management_api.project_management_api.service.UserService;
 
 @RestController
 public class SseController {
 
-    // Sinks é a fila de eventos que os clientes vão receber
-    private final Sinks.Many<String> notificationSink = Sinks.many().multicast().onBackpressureBuffer();
+    private final SseSubscriptionRegistry sseSubscriptionRegistry;
+    private final SseBatchingWriter sseBatchingWriter;
+    private final UserService userService;
 
-    // Endpoint que o front vai se conectar para receber notificações
-    @GetMapping(path = "/sse/notifications", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<String> streamNotifications() {
-        return notificationSink.asFlux();
+    public SseController(SseSubscriptionRegistry sseSubscriptionRegistry, SseBatchingWriter sseBatchingWriter,
+            UserService userService) {
+        this.sseSubscriptionRegistry = sseSubscriptionRegistry;
+        this.sseBatchingWriter = sseBatchingWriter;
+        this.userService = userService;
     }
 
-    // Método chamado pelo NotificationService para enviar notificações
-    public void sendNotification(String message) {
-        // Emit com checagem de falha (mais seguro)
-        notificationSink.tryEmitNext(message).orThrow();
+    // Endpoint que o front vai se conectar para receber notificações do usuário autenticado.
+    // O EventSource do navegador reenvia o Last-Event-ID ao reconectar, recebendo só o que perdeu.
+    // Com sse.batching.enabled, rajadas de eventos saem agrupadas em uma escrita por conexão.
+    @GetMapping(path = "/sse/notifications", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseBodyEmitter streamNotifications(@RequestParam(required = false) Integer projectId,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return sseBatchingWriter.stream(
+                sseSubscriptionRegistry.subscribe(userService.getAuthenticatedUserId(), projectId, lastEventId));
     }
-}
\ No newline at end of file
+}
@@ -2,23 +2,35 @@ package project_management_api.project_management_api.controller;
 
 import java.security.Principal;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
+import project_management_api.project_management_api.dto.ChatPresenceSnapshotDTO;
+import project_management_api.project_management_api.dto.ChatReadStateReturnDTO;
+import project_management_api.project_management_api.dto.ChatTypingInputDTO;
 import project_management_api.project_management_api.dto.MessageInputDTO;
 import project_management_api.project_management_api.dto.MessageReturnDTO;
+import project_management_api.project_management_api.service.ChatPresenceService;
 import project_management_api.project_management_api.service.MessageService;
 
 @Controller
 public class WebSocketController {
 
     private final MessageService messageService;
+    private final ChatPresenceService chatPresenceService;
+    private final boolean writeBehind;
 
-    public WebSocketController(MessageService messageService) {
+    public WebSocketController(MessageService messageService, ChatPresenceService chatPresenceService,
+            @Value("${chat.write-behind.enabled:false}") boolean writeBehind) {
         this.messageService = messageService;
+        this.chatPresenceService = chatPresenceService;
+        this.writeBehind = writeBehind;
     }
 
     @MessageMapping("/project/{projectId}/send")
@@ -28,17 +40,40 @@ public class WebSocketController {
             Principal principal) { // <-- ESSENCIAL: Garante que o usuário está autenticado
 
         // O Service AINDA pode usar userService.getAuthenticatedUser() aqui dentro.
+        // Com write-behind, a mensagem é publicada antes de ser gravada (ver ChatMessageWriteBehind)
+        if (writeBehind) {
+            return messageService.sendMessageWriteBehind(projectId, messageDto);
+        }
         return messageService.sendMessage(projectId, messageDto);
     }
 
+    // A leitura é de cada usuário: o novo estado volta só para as sessões de quem leu
     @MessageMapping("/message/{messageId}/markRead")
-    @SendTo("/topic/message/{messageId}")
-    public MessageReturnDTO markRead(@DestinationVariable Integer messageId,
+    @SendToUser("/queue/chat-read")
+    public ChatReadStateReturnDTO markRead(@DestinationVariable Integer messageId,
             Principal principal) { // <-- ESSENCIAL
 
         return messageService.markRead(messageId);
     }
 
+    // Só em memória: os outros membros recebem o diff em /topic/project/{projectId}/presence
+    @MessageMapping("/project/{projectId}/typing")
+    public void typing(@DestinationVariable Integer projectId,
+            @Payload ChatTypingInputDTO typingDto,
+            Principal principal) { // <-- ESSENCIAL
+
+        chatPresenceService.typing(projectId, principal, typingDto.isTyping());
+    }
+
+    // Estado completo da sala, respondido só a quem assina /app/project/{projectId}/presence; os diffs
+    // seguintes chegam pelo tópico
+    @SubscribeMapping("/project/{projectId}/presence")
+    public ChatPresenceSnapshotDTO presence(@DestinationVariable Integer projectId,
+            Principal principal) { // <-- ESSENCIAL
+
+        return chatPresenceService.snapshot(projectId, principal);
+    }
+
     @MessageMapping("/message/{messageId}/delete")
     @SendTo("/topic/message/{messageId}/deleted")
     public void delete(@DestinationVariable Integer messageId,
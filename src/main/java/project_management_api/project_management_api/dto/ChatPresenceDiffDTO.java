@@ -0,0 +1,20 @@
+package project_management_api.project_management_api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatPresenceDiffDTO {
+    private Integer projectId;
+    private List<Integer> joined;
+    private List<Integer> left;
+    private List<Integer> startedTyping;
+    private List<Integer> stoppedTyping;
+}
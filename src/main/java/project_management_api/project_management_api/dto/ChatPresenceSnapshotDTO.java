@@ -0,0 +1,18 @@
+package project_management_api.project_management_api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatPresenceSnapshotDTO {
+    private Integer projectId;
+    private List<Integer> online;
+    private List<Integer> typing;
+}
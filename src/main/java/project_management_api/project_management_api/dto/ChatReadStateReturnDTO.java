@@ -0,0 +1,16 @@
+package project_management_api.project_management_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatReadStateReturnDTO {
+    private Integer projectId;
+    private Integer lastReadMessageId;
+    private long unreadCount;
+}
@@ -0,0 +1,18 @@
+package project_management_api.project_management_api.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageSearchPageReturnDTO {
+    private List<MessageSearchReturnDTO> items;
+    // null quando não há próxima página
+    private Integer nextPage;
+}
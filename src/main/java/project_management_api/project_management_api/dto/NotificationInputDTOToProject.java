@@ -1,15 +1,46 @@
 package project_management_api.project_management_api.dto;
 
-import lombok.AllArgsConstructor;
+import java.util.List;
+
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import project_management_api.project_management_api.enums.NotificationTemplate;
 
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class NotificationInputDTOToProject {
+    // Texto livre; ignorado quando um modelo é informado
     private String textNotification;
     private Integer projectId;
+    // Opcional: quando informado, atualizações seguidas da mesma task são agrupadas em uma única notificação
+    private Integer taskId;
+    private NotificationTemplate template;
+    private List<String> params;
+    // Responsável pela task, para quem prefere receber só notificações das próprias tasks
+    private Integer taskOwnerId;
+
+    public NotificationInputDTOToProject(String textNotification, Integer projectId) {
+        this.textNotification = textNotification;
+        this.projectId = projectId;
+    }
+
+    public NotificationInputDTOToProject(NotificationTemplate template, List<String> params, Integer projectId) {
+        this.template = template;
+        this.params = params;
+        this.projectId = projectId;
+    }
+
+    public NotificationInputDTOToProject(NotificationTemplate template, List<String> params, Integer projectId,
+            Integer taskId) {
+        this(template, params, projectId);
+        this.taskId = taskId;
+    }
+
+    public NotificationInputDTOToProject(NotificationTemplate template, List<String> params, Integer projectId,
+            Integer taskId, Integer taskOwnerId) {
+        this(template, params, projectId, taskId);
+        this.taskOwnerId = taskOwnerId;
+    }
 }
@@ -0,0 +1,17 @@
+package project_management_api.project_management_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPreferenceDTO {
+    private Integer projectId;
+    private boolean muteProject;
+    private boolean muteChat;
+    private boolean onlyAssignedTasks;
+}
@@ -0,0 +1,8 @@
+package project_management_api.project_management_api.enums;
+
+// Categoria usada pelas preferências de notificação de cada usuário no projeto
+public enum NotificationCategory {
+    PROJECT,
+    CHAT,
+    TASK
+}
@@ -0,0 +1,11 @@
+package project_management_api.project_management_api.enums;
+
+// Fila de entrega da notificação. Cada prioridade tem seu próprio executor limitado (NotificationDeliveryLanes).
+public enum NotificationPriority {
+    // Notificações diretas de um único destinatário (ex.: atribuição de task)
+    HIGH,
+    // Fan-out de eventos de projeto e de task
+    NORMAL,
+    // Fan-out de chat, o mais volumoso
+    LOW
+}
@@ -0,0 +1,57 @@
+package project_management_api.project_management_api.enums;
+
+import java.util.List;
+
+// Modelos das notificações. O banco guarda só o modelo e os parâmetros de cada evento;
+// o texto é montado na leitura, então uma notificação para N membros não repete o texto N vezes.
+public enum NotificationTemplate {
+
+    // Texto livre, usado por quem ainda monta a mensagem por conta própria
+    TEXT(NotificationCategory.PROJECT, "{0}"),
+    CHAT_MESSAGE(NotificationCategory.CHAT, "{0}: \n{1}"),
+    CHAT_MESSAGE_DELETED(NotificationCategory.CHAT, "{0} apagou uma mensagem no projeto {1}."),
+    TASK_CREATED(NotificationCategory.TASK, "Nova Task criada: '{0}' no projeto {1}"),
+    TASK_UPDATED(NotificationCategory.TASK, "Task '{0}' foi atualizada no projeto {1}"),
+    TASK_STATUS_CHANGED(NotificationCategory.TASK, "Status da task '{0}' foi atualizado para {1}"),
+    TASK_DELETED(NotificationCategory.TASK, "Task '{0}' foi permanentemente excluída do projeto {1}"),
+    PROJECT_UPDATED(NotificationCategory.PROJECT, "{0} atualizou dados do projeto {1}."),
+    PROJECT_STATUS_UPDATED(NotificationCategory.PROJECT, "{0} atualizou o status do projeto {1}."),
+    PROJECT_MEMBER_ADDED(NotificationCategory.PROJECT, "{0} foi adicionado ao projeto {1}."),
+    PROJECT_MEMBER_REMOVED(NotificationCategory.PROJECT, "{0} foi removido do projeto {1}.");
+
+    private final NotificationCategory category;
+    private final String pattern;
+
+    NotificationTemplate(NotificationCategory category, String pattern) {
+        this.category = category;
+        this.pattern = pattern;
+    }
+
+    public NotificationCategory getCategory() {
+        return category;
+    }
+
+    // Só notificações de projeto passam pelo outbox; chat vai para a fila menos prioritária
+    public NotificationPriority getPriority() {
+        return category == NotificationCategory.CHAT ? NotificationPriority.LOW : NotificationPriority.NORMAL;
+    }
+
+    // Substitui {0}, {1}... em uma única passada, para que um parâmetro nunca seja reinterpretado
+    public String render(List<String> params) {
+        StringBuilder text = new StringBuilder(pattern.length() + 64);
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            int close = c == '{' ? pattern.indexOf('}', i) : -1;
+            if (close > i + 1) {
+                int index = Integer.parseInt(pattern.substring(i + 1, close));
+                text.append(params != null && index < params.size() ? params.get(index) : "");
+                i = close + 1;
+            } else {
+                text.append(c);
+                i++;
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,7 @@
+package project_management_api.project_management_api.enums;
+
+public enum OutboxStatus {
+    PENDING,
+    PROCESSING,
+    FAILED
+}
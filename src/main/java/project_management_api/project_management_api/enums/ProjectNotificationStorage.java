@@ -0,0 +1,9 @@
+package project_management_api.project_management_api.enums;
+
+// Como as notificações de projeto são armazenadas
+public enum ProjectNotificationStorage {
+    // Uma linha em notification por membro, gravada no fan-out
+    FAN_OUT_ON_WRITE,
+    // Só o evento é gravado; cada usuário tem uma marca de leitura por projeto e o feed junta tudo na leitura
+    FAN_OUT_ON_READ
+}
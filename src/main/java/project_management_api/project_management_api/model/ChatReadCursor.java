@@ -0,0 +1,46 @@
+package project_management_api.project_management_api.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Última mensagem do chat de um projeto que o usuário já leu. Mensagens depois dela, na ordem (time, id)
+// do histórico, contam como não lidas. O tempo fica junto com o id porque os ids da sequência são
+// reservados em blocos e não seguem a ordem de envio entre instâncias.
+@Entity
+@Getter
+@Setter
+@IdClass(ChatReadCursor.Key.class)
+public class ChatReadCursor {
+
+    @Id
+    private Integer userId;
+
+    @Id
+    private Integer projectId;
+
+    @Column(nullable = false)
+    private Integer lastReadMessageId;
+
+    @Column(nullable = false)
+    private LocalDateTime lastReadTime;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Integer userId;
+        private Integer projectId;
+    }
+}
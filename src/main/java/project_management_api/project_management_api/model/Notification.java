@@ -6,11 +6,13 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import lombok.Getter;
 import lombok.Setter;
 import project_management_api.project_management_api.enums.NotificationStatus;
@@ -20,19 +22,28 @@ import project_management_api.project_management_api.enums.NotificationStatus;
 @Setter
 public class Notification {
 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     @Id
     private Integer id;
 
-    @Column(nullable = false)
+    // Preenchido nas notificações diretas; nas de projeto o texto vem do evento compartilhado
     private String textNotification;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id")
+    private NotificationEvent event;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private NotificationStatus status = NotificationStatus.NOT_READ;
 
     @Column(nullable = false)
     private LocalDateTime time = LocalDateTime.now();
+
+    // Quando o cliente recebeu a notificação (escrita no SSE ou devolvida em /me/undelivered); null = pendente
+    private LocalDateTime deliveredAt;
+
     @ManyToOne
     @JoinColumn(nullable = false)
     private User userDestin;
@@ -0,0 +1,66 @@
+package project_management_api.project_management_api.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.Getter;
+import lombok.Setter;
+import project_management_api.project_management_api.enums.NotificationCategory;
+import project_management_api.project_management_api.enums.NotificationTemplate;
+
+// Conteúdo de uma notificação de projeto, gravado uma única vez e compartilhado pelas linhas
+// de notification de todos os destinatários.
+@Entity
+@Getter
+@Setter
+public class NotificationEvent {
+
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_event_seq")
+    @SequenceGenerator(name = "notification_event_seq", sequenceName = "notification_event_seq", allocationSize = 50)
+    @Id
+    private Integer id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationTemplate template;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private List<String> params;
+
+    // Sem FK: o evento continua legível depois que o projeto é excluído
+    private Integer projectId;
+
+    // Categoria do modelo e responsável pela task: o feed FAN_OUT_ON_READ filtra por elas com as preferências
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationCategory category;
+
+    private Integer taskOwnerId;
+
+    @Column(nullable = false)
+    private int coalescedCount = 1;
+
+    // true quando não há linhas por membro em notification: o feed lê o evento direto (FAN_OUT_ON_READ)
+    @Column(nullable = false)
+    private boolean fanOutOnRead = false;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public String render() {
+        String text = template.render(params);
+        return coalescedCount > 1 ? text + " (" + coalescedCount + " atualizações agrupadas)" : text;
+    }
+}
@@ -0,0 +1,79 @@
+package project_management_api.project_management_api.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.Getter;
+import lombok.Setter;
+import project_management_api.project_management_api.enums.NotificationPriority;
+import project_management_api.project_management_api.enums.NotificationTemplate;
+import project_management_api.project_management_api.enums.OutboxStatus;
+
+// Evento de notificação de projeto gravado na mesma transação da alteração de negócio.
+// O fan-out para os membros é feito depois do commit pelo NotificationOutboxDispatcher.
+@Entity
+@Getter
+@Setter
+public class NotificationOutbox {
+
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    @Id
+    private Integer id;
+
+    // Sem FK: o projeto pode ser excluído antes do evento ser despachado
+    @Column(nullable = false)
+    private Integer projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationTemplate template;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
+    private List<String> params;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status = OutboxStatus.PENDING;
+
+    // Cada prioridade é consumida por um despacho e um executor próprios
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationPriority priority = NotificationPriority.NORMAL;
+
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Próximo momento em que o evento pode ser despachado (usado no backoff das tentativas)
+    @Column(nullable = false)
+    private LocalDateTime availableAt = LocalDateTime.now();
+
+    private LocalDateTime lockedAt;
+
+    // Responsável pela task (notificações de task), usado pelo filtro de preferências no fan-out
+    private Integer taskOwnerId;
+
+    // Eventos pendentes com a mesma chave (projeto + task) são agrupados em um só dentro da janela de coalescência
+    private String coalesceKey;
+
+    @Column(nullable = false)
+    private int coalescedCount = 1;
+
+    @Column(length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,49 @@
+package project_management_api.project_management_api.model;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Preferências de notificação de um usuário em um projeto. Só existe linha para quem mudou algo do padrão.
+@Entity
+@Getter
+@Setter
+@IdClass(NotificationPreference.Key.class)
+public class NotificationPreference {
+
+    @Id
+    private Integer userId;
+
+    @Id
+    private Integer projectId;
+
+    // Nenhuma notificação do projeto
+    @Column(nullable = false)
+    private boolean muteProject = false;
+
+    // Nenhuma notificação de chat do projeto
+    @Column(nullable = false)
+    private boolean muteChat = false;
+
+    // Notificações de task só quando o usuário é o responsável
+    @Column(nullable = false)
+    private boolean onlyAssignedTasks = false;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Integer userId;
+        private Integer projectId;
+    }
+}
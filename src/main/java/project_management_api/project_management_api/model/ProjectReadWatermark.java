@@ -0,0 +1,45 @@
+package project_management_api.project_management_api.model;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Até onde o usuário já leu os eventos de um projeto (modo FAN_OUT_ON_READ).
+// Eventos do projeto criados depois de readUpTo contam como não lidos.
+@Entity
+@Getter
+@Setter
+@IdClass(ProjectReadWatermark.Key.class)
+public class ProjectReadWatermark {
+
+    // Sem marca gravada, todos os eventos do projeto contam como não lidos
+    public static final LocalDateTime NEVER_READ = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Id
+    private Integer userId;
+
+    @Id
+    private Integer projectId;
+
+    @Column(nullable = false)
+    private LocalDateTime readUpTo;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Integer userId;
+        private Integer projectId;
+    }
+}
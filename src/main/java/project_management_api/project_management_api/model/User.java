@@ -17,6 +17,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -28,7 +29,8 @@ import project_management_api.project_management_api.enums.RoleName;
 @Table(name = "users_tb")
 public class User implements UserDetails {
 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_tb_seq")
+    @SequenceGenerator(name = "users_tb_seq", sequenceName = "users_tb_seq", allocationSize = 50)
     @Id
     private Integer id;
 
@@ -0,0 +1,35 @@
+package project_management_api.project_management_api.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import project_management_api.project_management_api.model.ChatReadCursor;
+
+public interface ChatReadCursorRepository extends JpaRepository<ChatReadCursor, ChatReadCursor.Key> {
+
+    // Um único comando: confere que a mensagem é do projeto e que o usuário é membro, e só move o cursor
+    // para frente. Retorna 0 quando nada foi gravado (mensagem inválida, sem acesso ou cursor já adiante).
+    @Modifying
+    @Query(value = "INSERT INTO chat_read_cursor (user_id, project_id, last_read_message_id, last_read_time) "
+            + "SELECT :userId, m.project_id, m.id, m.time FROM message m "
+            + "WHERE m.id = :messageId AND m.project_id = :projectId AND EXISTS (SELECT 1 FROM user_project up "
+            + "WHERE up.user_id = :userId AND up.project_id = m.project_id) "
+            + "ON CONFLICT (user_id, project_id) DO UPDATE SET "
+            + "last_read_message_id = EXCLUDED.last_read_message_id, last_read_time = EXCLUDED.last_read_time "
+            + "WHERE (EXCLUDED.last_read_time, EXCLUDED.last_read_message_id) "
+            + "> (chat_read_cursor.last_read_time, chat_read_cursor.last_read_message_id)", nativeQuery = true)
+    int advance(@Param("userId") Integer userId, @Param("projectId") Integer projectId,
+            @Param("messageId") Integer messageId);
+
+    // Membro novo começa com o histórico já existente do chat lido
+    @Modifying
+    @Query(value = "INSERT INTO chat_read_cursor (user_id, project_id, last_read_message_id, last_read_time) "
+            + "SELECT :userId, m.project_id, m.id, m.time FROM message m WHERE m.project_id = :projectId "
+            + "ORDER BY m.time DESC, m.id DESC LIMIT 1 "
+            + "ON CONFLICT (user_id, project_id) DO UPDATE SET "
+            + "last_read_message_id = EXCLUDED.last_read_message_id, last_read_time = EXCLUDED.last_read_time",
+            nativeQuery = true)
+    int resetToLatest(@Param("userId") Integer userId, @Param("projectId") Integer projectId);
+}
@@ -1,15 +1,79 @@
 package project_management_api.project_management_api.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import project_management_api.project_management_api.dto.MessageReturnDTO;
 import project_management_api.project_management_api.model.Message;
 
 public interface MessageRepository extends JpaRepository<Message, Integer> {
 
+    // Marcadores dos termos encontrados no snippet da busca (chr(2) e chr(3) no SQL)
+    char SNIPPET_START = '\u0002';
+    char SNIPPET_END = '\u0003';
+
     List<Message> findByProject_Id(Integer projectId);
 
     List<Message> findByUser_Id(Integer userId);
 
+    boolean existsByIdAndProject_Id(Integer id, Integer projectId);
+
+    @Query("select m.project.id from Message m where m.id = :id")
+    Optional<Integer> findProjectIdById(@Param("id") Integer id);
+
+    // Mensagens de outros membros depois do cursor de leitura, na ordem (time, id) do índice da V12.
+    // Sem cursor, todo o chat do projeto conta como não lido. O limite de tempo vem de um subselect escalar,
+    // que o PostgreSQL resolve antes da varredura: as partições anteriores ao cursor são descartadas na execução.
+    @Query(value = "SELECT count(*) FROM message m "
+            + "WHERE m.project_id = :projectId AND m.user_id <> :userId "
+            + "AND m.time >= (SELECT COALESCE(max(c.last_read_time), CAST('-infinity' AS timestamp)) "
+            + "FROM chat_read_cursor c WHERE c.user_id = :userId AND c.project_id = :projectId) "
+            + "AND (m.time, m.id) > (SELECT COALESCE(max(c.last_read_time), CAST('-infinity' AS timestamp)), "
+            + "COALESCE(max(c.last_read_message_id), 0) "
+            + "FROM chat_read_cursor c WHERE c.user_id = :userId AND c.project_id = :projectId)",
+            nativeQuery = true)
+    long countUnread(@Param("projectId") Integer projectId, @Param("userId") Integer userId);
+
+    // Histórico do chat por (time, id) decrescente, atendido pelo índice da V12. O DTO é montado na própria
+    // consulta: sem entidades no contexto de persistência nem join com project/users_tb.
+    // Com a tabela particionada por mês (V14), o PostgreSQL percorre as partições da mais nova para a mais velha
+    // e para ao completar a página, então a primeira página só lê os meses mais recentes.
+    @Query("select new project_management_api.project_management_api.dto.MessageReturnDTO("
+            + "m.id, m.text, m.time, m.status, m.project.id, m.user.id) "
+            + "from Message m where m.project.id = :projectId order by m.time desc, m.id desc")
+    List<MessageReturnDTO> findHistory(@Param("projectId") Integer projectId, Pageable pageable);
+
+    // "m.time <= :time" repete o que o OR já garante, mas é o que permite descartar as partições mais novas
+    @Query("select new project_management_api.project_management_api.dto.MessageReturnDTO("
+            + "m.id, m.text, m.time, m.status, m.project.id, m.user.id) "
+            + "from Message m where m.project.id = :projectId and m.time <= :time "
+            + "and (m.time < :time or (m.time = :time and m.id < :id)) order by m.time desc, m.id desc")
+    List<MessageReturnDTO> findHistoryBefore(@Param("projectId") Integer projectId,
+            @Param("time") LocalDateTime time, @Param("id") Integer id, Pageable pageable);
+
+    // Busca textual pelo índice GIN de search_vector (V11). websearch_to_tsquery aceita o texto digitado
+    // pelo usuário (aspas, OR, -termo) sem erro de sintaxe. O ts_headline, que relê o texto, roda só nas
+    // linhas da página. Os termos encontrados vêm entre SNIPPET_START e SNIPPET_END, caracteres de controle
+    // retirados do texto antes, e não entre tags HTML: o texto não é escapado aqui.
+    @Query(value = "SELECT r.id AS id, r.text AS text, r.time AS time, r.status AS status, "
+            + "r.project_id AS projectId, r.user_id AS userId, r.rank AS rank, "
+            + "ts_headline('portuguese', translate(r.text, chr(2) || chr(3), ''), "
+            + "websearch_to_tsquery('portuguese', :query), "
+            + "'StartSel=' || chr(2) || ', StopSel=' || chr(3) || ', MaxWords=20, MinWords=5, MaxFragments=2') "
+            + "AS snippet "
+            + "FROM (SELECT m.id, m.text, m.time, m.status, m.project_id, m.user_id, "
+            + "ts_rank(m.search_vector, websearch_to_tsquery('portuguese', :query)) AS rank "
+            + "FROM message m WHERE m.project_id = :projectId "
+            + "AND m.search_vector @@ websearch_to_tsquery('portuguese', :query) "
+            + "ORDER BY rank DESC, m.time DESC, m.id DESC LIMIT :limit OFFSET :offset) r "
+            + "ORDER BY r.rank DESC, r.time DESC, r.id DESC", nativeQuery = true)
+    List<MessageSearchHit> search(@Param("projectId") Integer projectId, @Param("query") String query,
+            @Param("limit") int limit, @Param("offset") long offset);
+
 }
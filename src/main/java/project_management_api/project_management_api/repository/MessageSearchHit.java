@@ -0,0 +1,24 @@
+package project_management_api.project_management_api.repository;
+
+import java.time.LocalDateTime;
+
+// Linha devolvida pela busca textual de mensagens (MessageRepository.search): só as colunas da página,
+// sem carregar entidades
+public interface MessageSearchHit {
+
+    Integer getId();
+
+    String getText();
+
+    LocalDateTime getTime();
+
+    String getStatus();
+
+    Integer getProjectId();
+
+    Integer getUserId();
+
+    Double getRank();
+
+    String getSnippet();
+}
@@ -0,0 +1,74 @@
+package project_management_api.project_management_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import project_management_api.project_management_api.model.NotificationEvent;
+
+public interface NotificationEventRepository extends JpaRepository<NotificationEvent, Integer> {
+
+    String CATEGORY = "project_management_api.project_management_api.enums.NotificationCategory.";
+
+    // Mesmas regras do fan-out (NotificationPreferenceFilter): o que o usuário silenciou no projeto não aparece
+    // no feed nem conta como não lido
+    String ACCEPTED_BY_PREFERENCES = "and not exists (select np from NotificationPreference np "
+            + "where np.userId = :userId and np.projectId = e.projectId and (np.muteProject = true "
+            + "or (np.muteChat = true and e.category = " + CATEGORY + "CHAT) "
+            + "or (np.onlyAssignedTasks = true and e.category = " + CATEGORY + "TASK "
+            + "and (e.taskOwnerId is null or e.taskOwnerId <> :userId)))) ";
+
+    // Eventos FAN_OUT_ON_READ dos projetos de que o usuário é membro, com a marca de leitura dele em cada projeto.
+    // readState: 0 = todos, 1 = só não lidos, 2 = só lidos.
+    String PROJECT_FEED = "select e from NotificationEvent e "
+            + "left join ProjectReadWatermark w on w.userId = :userId and w.projectId = e.projectId "
+            + "where e.fanOutOnRead = true "
+            + "and e.projectId in (select p.id from Project p join p.users u where u.id = :userId) "
+            + ACCEPTED_BY_PREFERENCES
+            + "and (:readState = 0 "
+            + "or (:readState = 1 and e.createdAt > coalesce(w.readUpTo, :neverRead)) "
+            + "or (:readState = 2 and e.createdAt <= coalesce(w.readUpTo, :neverRead))) ";
+
+    String UNREAD_EVENTS = "from NotificationEvent e "
+            + "left join ProjectReadWatermark w on w.userId = :userId and w.projectId = e.projectId "
+            + "where e.fanOutOnRead = true "
+            + "and e.projectId in (select p.id from Project p join p.users u where u.id = :userId) "
+            + ACCEPTED_BY_PREFERENCES
+            + "and e.createdAt > coalesce(w.readUpTo, :neverRead) ";
+
+    String UNREAD = "select count(e) " + UNREAD_EVENTS;
+
+    // No feed mesclado, eventos vêm depois das notificações diretas de mesmo horário e em ordem crescente de id
+    @Query(PROJECT_FEED + "order by e.createdAt desc, e.id asc")
+    List<NotificationEvent> findProjectFeed(@Param("userId") Integer userId, @Param("readState") int readState,
+            @Param("neverRead") LocalDateTime neverRead, Pageable pageable);
+
+    @Query(PROJECT_FEED + "and (e.createdAt < :time or (e.createdAt = :time and e.id > :minId)) "
+            + "order by e.createdAt desc, e.id asc")
+    List<NotificationEvent> findProjectFeedBefore(@Param("userId") Integer userId, @Param("readState") int readState,
+            @Param("neverRead") LocalDateTime neverRead, @Param("time") LocalDateTime time,
+            @Param("minId") Integer minId, Pageable pageable);
+
+    @Query(UNREAD)
+    long countUnreadProjectEvents(@Param("userId") Integer userId, @Param("neverRead") LocalDateTime neverRead);
+
+    // Por projeto, para o markAllRead avançar cada marca só até o que já existia na leitura
+    @Query("select e.projectId as projectId, count(e) as unread, max(e.createdAt) as latest "
+            + UNREAD_EVENTS + "group by e.projectId")
+    List<ProjectUnreadEvents> findUnreadByProject(@Param("userId") Integer userId,
+            @Param("neverRead") LocalDateTime neverRead);
+
+    @Query(UNREAD + "and e.projectId = :projectId and e.createdAt <= :upTo")
+    long countUnreadProjectEventsUpTo(@Param("userId") Integer userId, @Param("projectId") Integer projectId,
+            @Param("upTo") LocalDateTime upTo, @Param("neverRead") LocalDateTime neverRead);
+
+    @Query("select e from NotificationEvent e where e.fanOutOnRead = true and e.id in :ids "
+            + "and e.projectId in (select p.id from Project p join p.users u where u.id = :userId)")
+    List<NotificationEvent> findVisibleProjectEvents(@Param("userId") Integer userId,
+            @Param("ids") Collection<Integer> ids);
+}
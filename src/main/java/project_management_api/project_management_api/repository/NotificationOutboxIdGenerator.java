@@ -0,0 +1,7 @@
+package project_management_api.project_management_api.repository;
+
+public interface NotificationOutboxIdGenerator {
+
+    // Próximo id do outbox pelo mesmo gerador da entidade, para INSERTs nativos
+    Integer nextId();
+}
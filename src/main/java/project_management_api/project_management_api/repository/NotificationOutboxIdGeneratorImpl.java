@@ -0,0 +1,25 @@
+package project_management_api.project_management_api.repository;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import project_management_api.project_management_api.model.NotificationOutbox;
+
+// Usa o otimizador pooled do Hibernate: o id sai da faixa de 50 já reservada por esta instância, em vez de um
+// nextval próprio que gastaria uma faixa inteira (notification_outbox_seq é INCREMENT BY 50) por INSERT
+public class NotificationOutboxIdGeneratorImpl implements NotificationOutboxIdGenerator {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Integer nextId() {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session
+                .getEntityPersister(NotificationOutbox.class.getName(), null).getGenerator();
+        return (Integer) generator.generate(session, null, null, EventType.INSERT);
+    }
+}
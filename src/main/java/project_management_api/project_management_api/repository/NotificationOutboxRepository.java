@@ -0,0 +1,61 @@
+package project_management_api.project_management_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import project_management_api.project_management_api.enums.OutboxStatus;
+import project_management_api.project_management_api.model.NotificationOutbox;
+
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Integer>,
+        NotificationOutboxIdGenerator {
+
+    // SKIP LOCKED permite que mais de uma instância da API despache o outbox sem disputar as mesmas linhas
+    @Query(value = "SELECT * FROM notification_outbox WHERE status = 'PENDING' AND priority = :priority "
+            + "AND available_at <= :now ORDER BY available_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutbox> findDispatchableForUpdate(@Param("priority") String priority,
+            @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Agrupa no evento pendente de mesma chave, se existir; senão cria um novo com o id vindo de nextId(), que só
+    // fica disponível após a janela. Se agrupar, o id é descartado.
+    @Modifying
+    @Query(value = "INSERT INTO notification_outbox (id, project_id, template, params, task_owner_id, priority, status, "
+            + "attempts, created_at, available_at, coalesce_key, coalesced_count) "
+            + "VALUES (:id, :projectId, :template, CAST(:params AS jsonb), :taskOwnerId, "
+            + ":priority, 'PENDING', 0, :now, :availableAt, :coalesceKey, 1) "
+            + "ON CONFLICT (coalesce_key) WHERE status = 'PENDING' DO UPDATE SET "
+            + "template = EXCLUDED.template, params = EXCLUDED.params, task_owner_id = EXCLUDED.task_owner_id, "
+            + "priority = EXCLUDED.priority, coalesced_count = notification_outbox.coalesced_count + 1",
+            nativeQuery = true)
+    int upsertCoalesced(@Param("id") Integer id, @Param("projectId") Integer projectId,
+            @Param("template") String template, @Param("params") String params, @Param("taskOwnerId") Integer taskOwnerId,
+            @Param("priority") String priority,
+            @Param("coalesceKey") String coalesceKey, @Param("now") LocalDateTime now,
+            @Param("availableAt") LocalDateTime availableAt);
+
+    // Eventos presos em PROCESSING; o dispatcher devolve cada um à fila em sua própria transação
+    @Query("select o.id from NotificationOutbox o where o.status = :processing and o.lockedAt < :staleBefore")
+    List<Integer> findStaleIds(@Param("processing") OutboxStatus processing,
+            @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query(value = "SELECT * FROM notification_outbox WHERE id = :id AND status = 'PROCESSING' "
+            + "AND locked_at < :staleBefore FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<NotificationOutbox> lockStale(@Param("id") Integer id, @Param("staleBefore") LocalDateTime staleBefore);
+
+    // Um evento que volta para PENDING não pode ficar ao lado de outro PENDING de mesma chave
+    // (ux_notification_outbox_pending_key). Se esse outro existir, ele absorve o evento: fica com os parâmetros
+    // mais novos, soma as atualizações agrupadas e o evento é apagado. Devolve 1 quando junta.
+    @Modifying
+    @Query(value = "WITH sibling AS (UPDATE notification_outbox p "
+            + "SET coalesced_count = p.coalesced_count + o.coalesced_count FROM notification_outbox o "
+            + "WHERE o.id = :id AND p.coalesce_key = o.coalesce_key AND p.status = 'PENDING' AND p.id <> o.id "
+            + "RETURNING p.id) "
+            + "DELETE FROM notification_outbox WHERE id = :id AND EXISTS (SELECT 1 FROM sibling)", nativeQuery = true)
+    int mergeIntoPendingSibling(@Param("id") Integer id);
+
+}
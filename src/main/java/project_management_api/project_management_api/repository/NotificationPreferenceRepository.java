@@ -0,0 +1,13 @@
+package project_management_api.project_management_api.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import project_management_api.project_management_api.model.NotificationPreference;
+
+public interface NotificationPreferenceRepository
+        extends JpaRepository<NotificationPreference, NotificationPreference.Key> {
+
+    List<NotificationPreference> findByProjectId(Integer projectId);
+}
@@ -1,8 +1,14 @@
 package project_management_api.project_management_api.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import project_management_api.project_management_api.enums.NotificationStatus;
 import project_management_api.project_management_api.model.Notification;
@@ -13,4 +19,59 @@ public interface NotificationRepository extends JpaRepository<Notification, Inte
 
     List<Notification> findByUserDestin_IdAndStatus(Integer userId, NotificationStatus status);
 
+    long countByUserDestin_IdAndStatus(Integer userId, NotificationStatus status);
+
+    // Feed paginado por (time, id) decrescente, atendido pelos índices criados na V3.
+    // O join fetch traz o evento compartilhado junto, sem uma consulta extra por notificação.
+    @Query("select n from Notification n left join fetch n.event where n.userDestin.id = :userId "
+            + "order by n.time desc, n.id desc")
+    List<Notification> findFeed(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query("select n from Notification n left join fetch n.event where n.userDestin.id = :userId "
+            + "and (n.time < :time or (n.time = :time and n.id < :id)) order by n.time desc, n.id desc")
+    List<Notification> findFeedBefore(@Param("userId") Integer userId, @Param("time") LocalDateTime time,
+            @Param("id") Integer id, Pageable pageable);
+
+    @Query("select n from Notification n left join fetch n.event "
+            + "where n.userDestin.id = :userId and n.status = :status order by n.time desc, n.id desc")
+    List<Notification> findFeedByStatus(@Param("userId") Integer userId, @Param("status") NotificationStatus status,
+            Pageable pageable);
+
+    @Query("select n from Notification n left join fetch n.event "
+            + "where n.userDestin.id = :userId and n.status = :status "
+            + "and (n.time < :time or (n.time = :time and n.id < :id)) order by n.time desc, n.id desc")
+    List<Notification> findFeedByStatusBefore(@Param("userId") Integer userId,
+            @Param("status") NotificationStatus status, @Param("time") LocalDateTime time, @Param("id") Integer id,
+            Pageable pageable);
+
+    // Notificações ainda não entregues por SSE nem por esta consulta, em ordem de id para paginar por "after"
+    @Query("select n from Notification n left join fetch n.event where n.userDestin.id = :userId "
+            + "and n.status = :status and n.deliveredAt is null and n.id > :afterId order by n.id")
+    List<Notification> findUndelivered(@Param("userId") Integer userId, @Param("status") NotificationStatus status,
+            @Param("afterId") Integer afterId, Pageable pageable);
+
+    // Atualizações em massa: um único UPDATE no banco, sem carregar as entidades
+    @Modifying
+    @Query("update Notification n set n.status = :newStatus "
+            + "where n.userDestin.id = :userId and n.status = :currentStatus")
+    int updateStatusByUser(@Param("userId") Integer userId, @Param("currentStatus") NotificationStatus currentStatus,
+            @Param("newStatus") NotificationStatus newStatus);
+
+    @Modifying
+    @Query("update Notification n set n.status = :newStatus "
+            + "where n.userDestin.id = :userId and n.status = :currentStatus and n.id in :ids")
+    int updateStatusByUserAndIds(@Param("userId") Integer userId, @Param("ids") Collection<Integer> ids,
+            @Param("currentStatus") NotificationStatus currentStatus, @Param("newStatus") NotificationStatus newStatus);
+
+    @Modifying
+    @Query("update Notification n set n.status = :newStatus "
+            + "where n.userDestin.id = :userId and n.status = :currentStatus and n.time >= :from and n.time < :to")
+    int updateStatusByUserAndTimeRange(@Param("userId") Integer userId, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, @Param("currentStatus") NotificationStatus currentStatus,
+            @Param("newStatus") NotificationStatus newStatus);
+
+    @Modifying
+    @Query("update Notification n set n.deliveredAt = :deliveredAt where n.id in :ids and n.deliveredAt is null")
+    int markDelivered(@Param("ids") Collection<Integer> ids, @Param("deliveredAt") LocalDateTime deliveredAt);
+
 }
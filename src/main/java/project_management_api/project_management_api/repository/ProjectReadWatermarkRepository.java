@@ -0,0 +1,34 @@
+package project_management_api.project_management_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import project_management_api.project_management_api.model.ProjectReadWatermark;
+
+public interface ProjectReadWatermarkRepository
+        extends JpaRepository<ProjectReadWatermark, ProjectReadWatermark.Key> {
+
+    List<ProjectReadWatermark> findByUserId(Integer userId);
+
+    // A marca só anda para frente: GREATEST evita que uma requisição atrasada desfaça uma leitura mais recente
+    @Modifying
+    @Query(value = "INSERT INTO project_read_watermark (user_id, project_id, read_up_to) "
+            + "VALUES (:userId, :projectId, :readUpTo) "
+            + "ON CONFLICT (user_id, project_id) DO UPDATE SET "
+            + "read_up_to = GREATEST(project_read_watermark.read_up_to, EXCLUDED.read_up_to)", nativeQuery = true)
+    int advance(@Param("userId") Integer userId, @Param("projectId") Integer projectId,
+            @Param("readUpTo") LocalDateTime readUpTo);
+
+    // Membro novo não herda como "não lidos" os eventos anteriores à sua entrada
+    @Modifying
+    @Query(value = "INSERT INTO project_read_watermark (user_id, project_id, read_up_to) "
+            + "VALUES (:userId, :projectId, :readUpTo) "
+            + "ON CONFLICT (user_id, project_id) DO UPDATE SET read_up_to = EXCLUDED.read_up_to", nativeQuery = true)
+    int reset(@Param("userId") Integer userId, @Param("projectId") Integer projectId,
+            @Param("readUpTo") LocalDateTime readUpTo);
+}
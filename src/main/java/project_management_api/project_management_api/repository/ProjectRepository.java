@@ -3,6 +3,8 @@ package project_management_api.project_management_api.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import project_management_api.project_management_api.model.Project;
 
@@ -14,4 +16,12 @@ public interface ProjectRepository extends JpaRepository<Project, Integer> {
 
     List<Project> findByUsers_Id(Integer userId);
 
+    @Query("select count(u) from Project p join p.users u where p.id = :projectId")
+    long countUsersById(@Param("projectId") Integer projectId);
+
+    boolean existsByIdAndUsers_Id(Integer projectId, Integer userId);
+
+    @Query("select u.id from Project p join p.users u where p.id = :projectId")
+    List<Integer> findMemberIds(@Param("projectId") Integer projectId);
+
 }
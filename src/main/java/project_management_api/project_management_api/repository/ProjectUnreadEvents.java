@@ -0,0 +1,14 @@
+package project_management_api.project_management_api.repository;
+
+import java.time.LocalDateTime;
+
+// Eventos FAN_OUT_ON_READ não lidos de um projeto (NotificationEventRepository.findUnreadByProject)
+public interface ProjectUnreadEvents {
+
+    Integer getProjectId();
+
+    long getUnread();
+
+    // createdAt do evento não lido mais recente
+    LocalDateTime getLatest();
+}
@@ -0,0 +1,55 @@
+package project_management_api.project_management_api.service;
+
+import static project_management_api.project_management_api.service.TransactionCallbacks.afterCommit;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import project_management_api.project_management_api.repository.ProjectRepository;
+
+// Membros de cada projeto em memória, para o envio de mensagens do chat não ir ao banco a cada mensagem.
+// Mudanças de membros feitas nesta instância invalidam o projeto depois do commit; as de outras instâncias
+// passam a valer quando a entrada expira (chat.membership-cache.ttl-ms).
+@Component
+public class ChatMembershipCache {
+
+    private final ConcurrentHashMap<Integer, Members> membersByProject = new ConcurrentHashMap<>();
+    private final ProjectRepository projectRepository;
+    private final long ttlNanos;
+
+    public ChatMembershipCache(ProjectRepository projectRepository,
+            @Value("${chat.membership-cache.ttl-ms:30000}") long ttlMs) {
+        this.projectRepository = projectRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    // Projeto inexistente fica com a lista vazia: ninguém é membro
+    public boolean isMember(Integer projectId, Integer userId) {
+        long now = System.nanoTime();
+        Members members = membersByProject.get(projectId);
+        if (members == null || now - members.loadedAt >= ttlNanos) {
+            members = new Members(Set.copyOf(projectRepository.findMemberIds(projectId)), now);
+            membersByProject.put(projectId, members);
+        }
+        return members.userIds.contains(userId);
+    }
+
+    public void evict(Integer projectId) {
+        afterCommit(() -> membersByProject.remove(projectId));
+    }
+
+    private static final class Members {
+
+        private final Set<Integer> userIds;
+        private final long loadedAt;
+
+        private Members(Set<Integer> userIds, long loadedAt) {
+            this.userIds = userIds;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
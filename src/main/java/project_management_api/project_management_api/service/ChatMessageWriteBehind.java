@@ -0,0 +1,254 @@
+package project_management_api.project_management_api.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import project_management_api.project_management_api.dto.NotificationInputDTOToProject;
+import project_management_api.project_management_api.enums.NotificationTemplate;
+import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.UserRepository;
+
+// Gravação adiada (write-behind) das mensagens do chat enviadas por STOMP. A mensagem recebe o id definitivo
+// e é publicada antes de chegar ao banco; um agendamento grava as pendentes de todos os projetos em lotes,
+// com um INSERT em batch JDBC por lote, e registra no outbox a notificação de cada uma na mesma transação.
+// Os ids vêm de message_seq em faixas, como no otimizador pooled do Hibernate. A faixa seguinte é reservada
+// pelo agendamento, então o envio só vai ao banco se as duas faixas acabarem entre duas execuções.
+@Component
+public class ChatMessageWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatMessageWriteBehind.class);
+
+    // Igual ao INCREMENT BY de message_seq (e ao allocationSize da entidade Message)
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    private static final String INSERT_SQL = "INSERT INTO message (id, text, time, status, project_id, user_id) "
+            + "VALUES (?, ?, ?, 'NOT_READ', ?, ?)";
+
+    private final ConcurrentLinkedQueue<PendingMessage> pending = new ConcurrentLinkedQueue<>();
+    // Contém também as mensagens em retry, para o limite valer enquanto o banco estiver fora
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    // Lotes que falharam; só a thread do agendamento mexe nesta lista
+    private final List<PendingMessage> retry = new ArrayList<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationService notificationService;
+    private final UserRepository userRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxPending;
+    private final Counter written;
+    private final Counter dropped;
+
+    private long nextId = 1;
+    private long blockHigh;
+    private Long spareBlockHigh;
+
+    public ChatMessageWriteBehind(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Lazy NotificationService notificationService, UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${chat.write-behind.enabled:false}") boolean enabled,
+            @Value("${chat.write-behind.batch-size:500}") int batchSize,
+            @Value("${chat.write-behind.max-pending:50000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationService = notificationService;
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+
+        Gauge.builder("chat.write-behind.pending", pendingCount, AtomicInteger::get)
+                .description("Mensagens do chat publicadas e ainda não gravadas")
+                .register(meterRegistry);
+        this.written = Counter.builder("chat.write-behind.written")
+                .description("Mensagens do chat gravadas pelo write-behind")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("chat.write-behind.dropped")
+                .description("Mensagens do chat descartadas por violar alguma restrição do banco")
+                .register(meterRegistry);
+    }
+
+    public synchronized int nextId() {
+        if (nextId > blockHigh) {
+            long high = spareBlockHigh != null ? spareBlockHigh : reserveBlock();
+            spareBlockHigh = null;
+            nextId = high - SEQUENCE_INCREMENT + 1;
+            blockHigh = high;
+        }
+        return (int) nextId++;
+    }
+
+    // false quando a fila está cheia: o banco não acompanha e o envio deve ser recusado
+    public boolean enqueue(PendingMessage message) {
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            return false;
+        }
+        pending.add(message);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.write-behind.flush-interval-ms:5}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+
+        if (!retry.isEmpty() && !retryOneByOne()) {
+            return;
+        }
+
+        List<PendingMessage> batch;
+        while (!(batch = drain()).isEmpty()) {
+            try {
+                write(batch);
+            } catch (Exception ex) {
+                log.warn("Falha ao gravar {} mensagens do chat, nova tentativa no próximo ciclo: {}", batch.size(),
+                        ex.getMessage());
+                retry.addAll(batch);
+                return;
+            }
+        }
+
+        reserveSpareBlock();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private List<PendingMessage> drain() {
+        List<PendingMessage> batch = new ArrayList<>(Math.min(batchSize, pendingCount.get()));
+        PendingMessage message;
+        while (batch.size() < batchSize && (message = pending.poll()) != null) {
+            batch.add(message);
+        }
+        return batch;
+    }
+
+    // Depois de uma falha, grava uma a uma para isolar a mensagem que viola alguma restrição (projeto apagado,
+    // id já gravado por uma tentativa anterior). Devolve false se o banco continua fora.
+    private boolean retryOneByOne() {
+        Iterator<PendingMessage> messages = retry.iterator();
+        while (messages.hasNext()) {
+            PendingMessage message = messages.next();
+            try {
+                write(List.of(message));
+            } catch (DataIntegrityViolationException ex) {
+                log.warn("Mensagem {} do chat descartada: {}", message.getId(), ex.getMessage());
+                pendingCount.decrementAndGet();
+                dropped.increment();
+            } catch (Exception ex) {
+                return false;
+            }
+            messages.remove();
+        }
+        return true;
+    }
+
+    private void write(List<PendingMessage> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, message) -> {
+                statement.setInt(1, message.getId());
+                statement.setString(2, message.getText());
+                statement.setTimestamp(3, Timestamp.valueOf(message.getTime()));
+                statement.setInt(4, message.getProjectId());
+                statement.setInt(5, message.getUserId());
+            });
+            notifyProjects(batch);
+        });
+        pendingCount.addAndGet(-batch.size());
+        written.increment(batch.size());
+    }
+
+    private void notifyProjects(List<PendingMessage> batch) {
+        Map<Integer, String> senderNames = userRepository
+                .findAllById(batch.stream().map(PendingMessage::getUserId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(User::getId, User::getName));
+
+        for (PendingMessage message : batch) {
+            notificationService.sendNotificationToProject(new NotificationInputDTOToProject(
+                    NotificationTemplate.CHAT_MESSAGE,
+                    List.of(senderNames.getOrDefault(message.getUserId(), ""), message.getText()),
+                    message.getProjectId()));
+        }
+    }
+
+    private void reserveSpareBlock() {
+        synchronized (this) {
+            if (spareBlockHigh != null) {
+                return;
+            }
+        }
+        // A ida ao banco fica fora do lock para não segurar o nextId() dos envios
+        long high = reserveBlock();
+        synchronized (this) {
+            spareBlockHigh = high;
+        }
+    }
+
+    private long reserveBlock() {
+        return jdbcTemplate.queryForObject("SELECT nextval('message_seq')", Long.class);
+    }
+
+    public static final class PendingMessage {
+
+        private final Integer id;
+        private final Integer projectId;
+        private final Integer userId;
+        private final String text;
+        private final LocalDateTime time;
+
+        public PendingMessage(Integer id, Integer projectId, Integer userId, String text, LocalDateTime time) {
+            this.id = id;
+            this.projectId = projectId;
+            this.userId = userId;
+            this.text = text;
+            this.time = time;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public Integer getProjectId() {
+            return projectId;
+        }
+
+        public Integer getUserId() {
+            return userId;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public LocalDateTime getTime() {
+            return time;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package project_management_api.project_management_api.service;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import project_management_api.project_management_api.dto.ChatPresenceDiffDTO;
+import project_management_api.project_management_api.dto.ChatPresenceSnapshotDTO;
+
+// Presença e "digitando" das salas de chat, só em memória: nada é gravado no PostgreSQL.
+// Um usuário está online em um projeto enquanto alguma sessão STOMP dele assina /topic/project/{id} (ou o tópico
+// de presença); "digitando" expira sozinho depois de typing-ttl-ms sem novo frame de typing.
+// As mudanças só marcam a sala como alterada; a cada broadcast-interval-ms sai no máximo um diff por sala, em
+// /topic/project/{id}/presence, com a diferença em relação ao último diff enviado. O estado completo vem
+// no SUBSCRIBE de /app/project/{id}/presence.
+// Cada sala tem seu próprio lock, então mudanças em salas diferentes não disputam entre si.
+@Service
+public class ChatPresenceService {
+
+    private static final Logger log = LoggerFactory.getLogger(ChatPresenceService.class);
+
+    private static final Pattern ROOM_DESTINATION = Pattern.compile("/topic/project/(\\d+)(/presence)?");
+
+    private final ConcurrentHashMap<Integer, Room> rooms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SessionState> sessions = new ConcurrentHashMap<>();
+    private final Set<Integer> changedRooms = ConcurrentHashMap.newKeySet();
+    private final SimpMessagingTemplate messagingTemplate;
+    private final UserService userService;
+    private final ChatMembershipCache chatMembershipCache;
+    private final long typingTtlNanos;
+    private final Counter diffsPublished;
+
+    public ChatPresenceService(SimpMessagingTemplate messagingTemplate, UserService userService,
+            ChatMembershipCache chatMembershipCache, MeterRegistry meterRegistry,
+            @Value("${chat.presence.typing-ttl-ms:5000}") long typingTtlMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.userService = userService;
+        this.chatMembershipCache = chatMembershipCache;
+        this.typingTtlNanos = TimeUnit.MILLISECONDS.toNanos(typingTtlMs);
+
+        Gauge.builder("chat.presence.rooms", rooms, Map::size)
+                .description("Salas de chat com presença em memória")
+                .register(meterRegistry);
+        Gauge.builder("chat.presence.sessions", sessions, Map::size)
+                .description("Sessões STOMP com alguma sala assinada")
+                .register(meterRegistry);
+        this.diffsPublished = Counter.builder("chat.presence.diffs")
+                .description("Diffs de presença publicados")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Integer projectId = roomOf(accessor.getDestination());
+        if (projectId == null || event.getUser() == null || accessor.getSessionId() == null
+                || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        Integer userId = userIdOf(event.getUser());
+        if (userId == null || !chatMembershipCache.isMember(projectId, userId)) {
+            return;
+        }
+
+        SessionState session = sessions.computeIfAbsent(accessor.getSessionId(), id -> new SessionState(userId));
+        session.subscriptions.put(accessor.getSubscriptionId(), projectId);
+        // Uma sala vazia pode ser fechada pelo publishChanges() entre o get e o join; nesse caso cria outra
+        while (!rooms.computeIfAbsent(projectId, Room::new).join(userId)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        SessionState session = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        if (session == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        Integer projectId = session.subscriptions.remove(accessor.getSubscriptionId());
+        if (projectId != null) {
+            leave(projectId, session.userId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionState session = sessions.remove(event.getSessionId());
+        if (session == null) {
+            return;
+        }
+        for (Integer projectId : session.subscriptions.values()) {
+            leave(projectId, session.userId);
+        }
+    }
+
+    // Frames de typing repetidos só renovam o prazo; a sala só muda quando o estado muda
+    public void typing(Integer projectId, Principal principal, boolean typing) {
+        Room room = rooms.get(projectId);
+        Integer userId = principal != null ? userIdOf(principal) : null;
+        if (room == null || userId == null) {
+            return;
+        }
+        room.typing(userId, typing, System.nanoTime() + typingTtlNanos);
+    }
+
+    public ChatPresenceSnapshotDTO snapshot(Integer projectId, Principal principal) {
+        Integer userId = principal != null ? userIdOf(principal) : null;
+        Room room = rooms.get(projectId);
+        if (room == null || userId == null || !chatMembershipCache.isMember(projectId, userId)) {
+            return new ChatPresenceSnapshotDTO(projectId, List.of(), List.of());
+        }
+        return room.snapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${chat.presence.broadcast-interval-ms:250}")
+    public void publishChanges() {
+        long now = System.nanoTime();
+        rooms.forEach((projectId, room) -> room.expireTyping(now));
+
+        for (Integer projectId : List.copyOf(changedRooms)) {
+            changedRooms.remove(projectId);
+            Room room = rooms.get(projectId);
+            if (room == null) {
+                continue;
+            }
+
+            ChatPresenceDiffDTO diff = room.diff();
+            if (room.closeIfEmpty()) {
+                rooms.remove(projectId, room);
+            }
+            if (diff != null) {
+                messagingTemplate.convertAndSend("/topic/project/" + projectId + "/presence", diff);
+                diffsPublished.increment();
+            }
+        }
+    }
+
+    private void leave(Integer projectId, Integer userId) {
+        Room room = rooms.get(projectId);
+        if (room != null) {
+            room.leave(userId);
+        }
+    }
+
+    // Vem do cache do UserService: só a primeira sessão de cada usuário pode ir ao banco
+    private Integer userIdOf(Principal principal) {
+        try {
+            return userService.getUserIdByEmail(principal.getName());
+        } catch (RuntimeException ex) {
+            log.debug("Usuário {} ignorado na presença: {}", principal.getName(), ex.getMessage());
+            return null;
+        }
+    }
+
+    private static Integer roomOf(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = ROOM_DESTINATION.matcher(destination);
+        return matcher.matches() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+
+    private static final class SessionState {
+
+        private final Integer userId;
+        // subscriptionId -> projeto
+        private final ConcurrentHashMap<String, Integer> subscriptions = new ConcurrentHashMap<>();
+
+        private SessionState(Integer userId) {
+            this.userId = userId;
+        }
+    }
+
+    private final class Room {
+
+        private final Integer projectId;
+        // userId -> número de assinaturas abertas (várias abas, chat e presença)
+        private final Map<Integer, Integer> online = new HashMap<>();
+        // userId -> System.nanoTime() em que o "digitando" expira
+        private final Map<Integer, Long> typing = new HashMap<>();
+        // Estado enviado no último diff, base do próximo
+        private final Set<Integer> publishedOnline = new HashSet<>();
+        private final Set<Integer> publishedTyping = new HashSet<>();
+        private boolean closed;
+
+        private Room(Integer projectId) {
+            this.projectId = projectId;
+        }
+
+        // false se a sala já foi fechada e removida do mapa
+        private synchronized boolean join(Integer userId) {
+            if (closed) {
+                return false;
+            }
+            if (online.merge(userId, 1, Integer::sum) == 1) {
+                changedRooms.add(projectId);
+            }
+            return true;
+        }
+
+        private synchronized void leave(Integer userId) {
+            Integer count = online.computeIfPresent(userId, (id, current) -> current > 1 ? current - 1 : null);
+            if (count == null) {
+                typing.remove(userId);
+                changedRooms.add(projectId);
+            }
+        }
+
+        private synchronized void typing(Integer userId, boolean isTyping, long expiresAt) {
+            if (!online.containsKey(userId)) {
+                return;
+            }
+            boolean changed = isTyping ? typing.put(userId, expiresAt) == null : typing.remove(userId) != null;
+            if (changed) {
+                changedRooms.add(projectId);
+            }
+        }
+
+        private synchronized void expireTyping(long now) {
+            if (typing.values().removeIf(expiresAt -> now - expiresAt >= 0)) {
+                changedRooms.add(projectId);
+            }
+        }
+
+        private synchronized ChatPresenceDiffDTO diff() {
+            List<Integer> joined = added(publishedOnline, online.keySet());
+            List<Integer> left = added(online.keySet(), publishedOnline);
+            List<Integer> startedTyping = added(publishedTyping, typing.keySet());
+            List<Integer> stoppedTyping = added(typing.keySet(), publishedTyping);
+            if (joined.isEmpty() && left.isEmpty() && startedTyping.isEmpty() && stoppedTyping.isEmpty()) {
+                return null;
+            }
+
+            publishedOnline.clear();
+            publishedOnline.addAll(online.keySet());
+            publishedTyping.clear();
+            publishedTyping.addAll(typing.keySet());
+            return new ChatPresenceDiffDTO(projectId, joined, left, startedTyping, stoppedTyping);
+        }
+
+        private synchronized ChatPresenceSnapshotDTO snapshot() {
+            return new ChatPresenceSnapshotDTO(projectId, List.copyOf(online.keySet()), List.copyOf(typing.keySet()));
+        }
+
+        // Só fecha depois que a saída de todos já foi publicada
+        private synchronized boolean closeIfEmpty() {
+            closed = online.isEmpty() && typing.isEmpty() && publishedOnline.isEmpty() && publishedTyping.isEmpty();
+            return closed;
+        }
+
+        // Elementos de current que não estão em base
+        private static List<Integer> added(Set<Integer> base, Set<Integer> current) {
+            List<Integer> result = new ArrayList<>();
+            for (Integer userId : current) {
+                if (!base.contains(userId)) {
+                    result.add(userId);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package project_management_api.project_management_api.service;
+
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Retenção do chat: mantém criadas as partições mensais dos próximos meses e desanexa e apaga as partições que
+// saíram da janela de retenção. Não há DELETE linha a linha: uma partição inteira some de uma vez.
+@Component
+public class MessageRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageRetentionJob.class);
+
+    private final PartitionMaintenance partitionMaintenance;
+    private final boolean enabled;
+    private final int retentionMonths;
+    private final int monthsAhead;
+    private final Counter droppedPartitions;
+
+    public MessageRetentionJob(PartitionMaintenance partitionMaintenance, MeterRegistry meterRegistry,
+            @Value("${message.retention.enabled:true}") boolean enabled,
+            @Value("${message.retention.partition-months:0}") int retentionMonths,
+            @Value("${message.retention.months-ahead:3}") int monthsAhead) {
+        this.partitionMaintenance = partitionMaintenance;
+        this.enabled = enabled;
+        this.retentionMonths = retentionMonths;
+        this.monthsAhead = monthsAhead;
+        this.droppedPartitions = Counter.builder("message.retention.partitions.dropped")
+                .description("Partições mensais do chat descartadas pela retenção")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${message.retention.cron:0 45 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+
+        partitionMaintenance.ensureMonthlyPartitions("message", monthsAhead);
+        int dropped = dropExpiredPartitions();
+        log.info("Retenção do chat: {} partições descartadas", dropped);
+    }
+
+    // partition-months = 0 guarda o histórico para sempre
+    public int dropExpiredPartitions() {
+        if (retentionMonths <= 0) {
+            return 0;
+        }
+
+        int dropped = partitionMaintenance.dropPartitionsOlderThan("message",
+                LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths));
+        droppedPartitions.increment(dropped);
+        return dropped;
+    }
+}
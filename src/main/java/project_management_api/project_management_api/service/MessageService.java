@@ -3,39 +3,64 @@ package project_management_api.project_management_api.service;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.HtmlUtils;
 
 import jakarta.transaction.Transactional;
+import project_management_api.project_management_api.dto.ChatReadStateReturnDTO;
 import project_management_api.project_management_api.dto.MessageInputDTO;
+import project_management_api.project_management_api.dto.MessagePageReturnDTO;
 import project_management_api.project_management_api.dto.MessageReturnDTO;
+import project_management_api.project_management_api.dto.MessageSearchPageReturnDTO;
+import project_management_api.project_management_api.dto.MessageSearchReturnDTO;
 import project_management_api.project_management_api.dto.NotificationInputDTOToProject;
 import project_management_api.project_management_api.enums.MessageStatus;
+import project_management_api.project_management_api.enums.NotificationTemplate;
 import project_management_api.project_management_api.enums.RoleName;
+import project_management_api.project_management_api.model.ChatReadCursor;
 import project_management_api.project_management_api.model.Message;
 import project_management_api.project_management_api.model.Project;
 import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.ChatReadCursorRepository;
 import project_management_api.project_management_api.repository.MessageRepository;
+import project_management_api.project_management_api.repository.MessageSearchHit;
 import project_management_api.project_management_api.repository.ProjectRepository;
 import org.springframework.context.annotation.Lazy;
 
 @Service
 public class MessageService {
 
+        private static final int DEFAULT_SEARCH_PAGE_SIZE = 20;
+        private static final int MAX_SEARCH_PAGE_SIZE = 100;
+        private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+        private static final int MAX_HISTORY_PAGE_SIZE = 200;
+        // message.text é VARCHAR(255)
+        private static final int MAX_TEXT_LENGTH = 255;
+
         private final ProjectRepository projectRepository;
         private final MessageRepository messageRepository;
+        private final ChatReadCursorRepository chatReadCursorRepository;
         private final NotificationService notificationService;
         private final UserService userService;
+        private final ChatMembershipCache chatMembershipCache;
+        private final ChatMessageWriteBehind chatMessageWriteBehind;
 
         public MessageService(ProjectRepository projectRepository,
-                        MessageRepository messageRepository, @Lazy NotificationService notificationService,
-                        UserService userService) {
+                        MessageRepository messageRepository, ChatReadCursorRepository chatReadCursorRepository,
+                        @Lazy NotificationService notificationService, UserService userService,
+                        ChatMembershipCache chatMembershipCache, ChatMessageWriteBehind chatMessageWriteBehind) {
 
                 this.projectRepository = projectRepository;
                 this.messageRepository = messageRepository;
+                this.chatReadCursorRepository = chatReadCursorRepository;
                 this.notificationService = notificationService;
                 this.userService = userService;
+                this.chatMembershipCache = chatMembershipCache;
+                this.chatMessageWriteBehind = chatMessageWriteBehind;
         }
 
         private Project findProjectById(Integer projectId) {
@@ -44,12 +69,34 @@ public class MessageService {
                                                 "Projeto não encontrado."));
         }
 
+        // Confere existência e participação sem carregar o projeto nem a lista de membros
+        private void checkProjectAccess(Integer projectId) {
+                if (!projectRepository.existsById(projectId)) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Projeto não encontrado.");
+                }
+                if (!projectRepository.existsByIdAndUsers_Id(projectId, userService.getAuthenticatedUserId())) {
+                        throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                                        "Usuário não tem permissão para acessar este projeto.");
+                }
+        }
+
         private Message findMessageById(Integer messageId) {
                 return messageRepository.findById(messageId)
                                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                                                 "Mensagem não encontrada."));
         }
 
+        // Confere as restrições da coluna antes de gravar ou publicar a mensagem
+        private static void checkText(String text) {
+                if (text == null || text.isBlank()) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A mensagem não pode ser vazia.");
+                }
+                if (text.length() > MAX_TEXT_LENGTH) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                        "A mensagem pode ter no máximo " + MAX_TEXT_LENGTH + " caracteres.");
+                }
+        }
+
         public MessageReturnDTO toMessageDTO(Message message) {
                 return new MessageReturnDTO(
                                 message.getId(),
@@ -62,6 +109,7 @@ public class MessageService {
 
         @Transactional
         public MessageReturnDTO sendMessage(Integer projectId, MessageInputDTO messageDto) {
+                checkText(messageDto.getText());
 
                 User sender = userService.getAuthenticatedUser();
 
@@ -80,46 +128,142 @@ public class MessageService {
 
                 messageRepository.save(message);
                 notificationService.sendNotificationToProject(new NotificationInputDTOToProject(
-                                sender.getName() + ": \n" + messageDto.getText(), projectId));
+                                NotificationTemplate.CHAT_MESSAGE, List.of(sender.getName(), messageDto.getText()),
+                                projectId));
                 return toMessageDTO(message);
         }
 
-        @Transactional
-        public MessageReturnDTO markRead(Integer messageId) {
-
-                Message message = findMessageById(messageId);
+        // Envio do chat com gravação adiada: a participação vem do cache e o id definitivo já sai daqui, então a
+        // mensagem pode ser publicada na hora. A gravação e a notificação do projeto ficam com o
+        // ChatMessageWriteBehind, em lote.
+        public MessageReturnDTO sendMessageWriteBehind(Integer projectId, MessageInputDTO messageDto) {
+                // Uma mensagem que o banco recusaria já teria sido publicada quando o lote falhasse
+                checkText(messageDto.getText());
 
-                User user = userService.getAuthenticatedUser();
+                Integer senderId = userService.getAuthenticatedUserId();
+                if (!chatMembershipCache.isMember(projectId, senderId)) {
+                        throw new ResponseStatusException(HttpStatus.FORBIDDEN,
+                                        "Você não pode enviar mensagens para este projeto.");
+                }
 
-                if (message.getStatus().equals(MessageStatus.READ)) {
-                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Mensagem já marcada como lida.");
+                ChatMessageWriteBehind.PendingMessage message = new ChatMessageWriteBehind.PendingMessage(
+                                chatMessageWriteBehind.nextId(), projectId, senderId, messageDto.getText(),
+                                LocalDateTime.now());
+                if (!chatMessageWriteBehind.enqueue(message)) {
+                        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                                        "Chat sobrecarregado, tente novamente em instantes.");
                 }
 
-                if (!message.getProject().getUsers().contains(user)) {
-                        throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Usuário não autorizado.");
+                return new MessageReturnDTO(message.getId(), message.getText(), message.getTime(),
+                                MessageStatus.NOT_READ, projectId, senderId);
+        }
+
+        // Marca como lidas todas as mensagens do projeto até messageId, inclusive
+        @Transactional
+        public ChatReadStateReturnDTO markRead(Integer messageId) {
+                Integer projectId = messageRepository.findProjectIdById(messageId)
+                                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                                                "Mensagem não encontrada."));
+                return markProjectRead(projectId, messageId);
+        }
+
+        // Ler o chat inteiro é uma única escrita: o cursor do usuário avança até messageId, sem tocar nas
+        // mensagens. Repetir a chamada, ou chegar fora de ordem, não faz o cursor voltar.
+        @Transactional
+        public ChatReadStateReturnDTO markProjectRead(Integer projectId, Integer messageId) {
+                Integer userId = userService.getAuthenticatedUserId();
+
+                if (chatReadCursorRepository.advance(userId, projectId, messageId) == 0) {
+                        // Nada gravado: só aqui vale a pena descobrir o motivo
+                        if (!messageRepository.existsByIdAndProject_Id(messageId, projectId)) {
+                                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Mensagem não encontrada.");
+                        }
+                        if (!projectRepository.existsByIdAndUsers_Id(projectId, userId)) {
+                                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Usuário não autorizado.");
+                        }
                 }
 
-                message.setStatus(MessageStatus.READ);
-                messageRepository.save(message);
-                return toMessageDTO(message);
+                return toChatReadState(projectId, userId);
+        }
 
+        public ChatReadStateReturnDTO getChatReadState(Integer projectId) {
+                checkProjectAccess(projectId);
+                return toChatReadState(projectId, userService.getAuthenticatedUserId());
         }
 
-        public List<MessageReturnDTO> search(Integer projectId, String text) {
-                Project project = findProjectById(projectId);
+        private ChatReadStateReturnDTO toChatReadState(Integer projectId, Integer userId) {
+                Integer lastReadMessageId = chatReadCursorRepository
+                                .findById(new ChatReadCursor.Key(userId, projectId))
+                                .map(ChatReadCursor::getLastReadMessageId)
+                                .orElse(null);
+                return new ChatReadStateReturnDTO(projectId, lastReadMessageId,
+                                messageRepository.countUnread(projectId, userId));
+        }
 
-                User user = userService.getAuthenticatedUser();
+        // Busca textual no PostgreSQL, ordenada por relevância: a JVM só recebe a página pedida,
+        // nunca as mensagens do projeto inteiro
+        public MessageSearchPageReturnDTO search(Integer projectId, String text, Integer page, Integer limit) {
+                if (text == null || text.isBlank()) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe o texto da busca.");
+                }
+                if (page != null && page < 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A página deve ser zero ou maior.");
+                }
 
-                if (!project.getUsers().contains(user)) {
-                        throw new ResponseStatusException(HttpStatus.FORBIDDEN,
-                                        "Usuário não tem permissão para acessar este projeto.");
+                checkProjectAccess(projectId);
+
+                int pageNumber = page != null ? page : 0;
+                int pageSize = KeysetCursor.pageSize(limit, DEFAULT_SEARCH_PAGE_SIZE, MAX_SEARCH_PAGE_SIZE);
+
+                // Um item a mais só para saber se existe próxima página
+                List<MessageSearchHit> hits = messageRepository.search(projectId, text, pageSize + 1,
+                                (long) pageNumber * pageSize);
+
+                boolean hasNext = hits.size() > pageSize;
+                List<MessageSearchReturnDTO> items = hits.stream().limit(pageSize)
+                                .map(hit -> new MessageSearchReturnDTO(hit.getId(), hit.getText(), hit.getTime(),
+                                                MessageStatus.valueOf(hit.getStatus()), hit.getProjectId(),
+                                                hit.getUserId(), highlight(hit.getSnippet()), hit.getRank()))
+                                .toList();
+
+                return new MessageSearchPageReturnDTO(items, hasNext ? pageNumber + 1 : null);
+        }
+
+        // O texto do snippet é escapado antes: só as marcações da busca viram HTML, nunca o que o usuário digitou
+        private static String highlight(String snippet) {
+                if (snippet == null) {
+                        return null;
                 }
+                return HtmlUtils.htmlEscape(snippet)
+                                .replace(String.valueOf(MessageRepository.SNIPPET_START), "<mark>")
+                                .replace(String.valueOf(MessageRepository.SNIPPET_END), "</mark>");
+        }
 
-                List<MessageReturnDTO> list = project.getMessages().stream()
-                                .filter(m -> m.getText().toLowerCase().contains(text.toLowerCase()))
-                                .map(m -> toMessageDTO(m)).toList();
+        // Histórico do chat, das mais recentes para as mais antigas. before é o nextCursor da página anterior;
+        // cada página custa o mesmo, não importa quão longe no histórico ela esteja.
+        public MessagePageReturnDTO getProjectHistory(Integer projectId, String before, Integer limit) {
+                checkProjectAccess(projectId);
+
+                int pageSize = KeysetCursor.pageSize(limit, DEFAULT_HISTORY_PAGE_SIZE, MAX_HISTORY_PAGE_SIZE);
+
+                // Busca um item a mais só para saber se existe próxima página
+                Pageable pageable = PageRequest.of(0, pageSize + 1);
+                List<MessageReturnDTO> messages;
+                if (before == null) {
+                        messages = messageRepository.findHistory(projectId, pageable);
+                } else {
+                        KeysetCursor cursor = KeysetCursor.decode(before);
+                        messages = messageRepository.findHistoryBefore(projectId, cursor.getTime(), cursor.getId(),
+                                        pageable);
+                }
+
+                if (messages.size() <= pageSize) {
+                        return new MessagePageReturnDTO(messages, null);
+                }
 
-                return list;
+                List<MessageReturnDTO> page = messages.subList(0, pageSize);
+                MessageReturnDTO last = page.get(pageSize - 1);
+                return new MessagePageReturnDTO(page, new KeysetCursor(last.getTime(), last.getId()).encode());
         }
 
         public MessageReturnDTO getMessageById(Integer messageId) {
@@ -153,10 +297,8 @@ public class MessageService {
                 }
 
                 notificationService.sendNotificationToProject(
-                                new NotificationInputDTOToProject(
-                                                user.getName() + " apagou uma mensagem no projeto "
-                                                                + project.getName() + ".",
-                                                project.getId()));
+                                new NotificationInputDTOToProject(NotificationTemplate.CHAT_MESSAGE_DELETED,
+                                                List.of(user.getName(), project.getName()), project.getId()));
                 messageRepository.delete(message);
 
         }
@@ -0,0 +1,88 @@
+package project_management_api.project_management_api.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+// Caminho de inserção em massa para fan-outs grandes: as linhas de notification vão por COPY direto
+// no driver do PostgreSQL, fora do contexto de persistência (sem entidades gerenciadas nem bind por linha).
+// Usa a conexão da transação corrente, então o COPY é desfeito junto se o fan-out falhar.
+@Component
+public class NotificationBulkWriter {
+
+    // Igual ao INCREMENT BY de notification_seq (e ao allocationSize da entidade Notification)
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    private static final String COPY_SQL = "COPY notification (id, event_id, status, time, user_destin_id) "
+            + "FROM STDIN WITH (FORMAT csv)";
+
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationBulkWriter(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Grava uma notificação NOT_READ por destinatário apontando para o evento compartilhado.
+    // Devolve os ids gravados, na mesma ordem de userIds.
+    public List<Integer> copyProjectNotifications(Integer eventId, LocalDateTime time, List<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> ids = reserveIds(userIds.size());
+        String suffix = "," + eventId + ",NOT_READ," + time + ",";
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            PGConnection pgConnection = connection.unwrap(PGConnection.class);
+            try (PGCopyOutputStream out = new PGCopyOutputStream(pgConnection, COPY_SQL, COPY_BUFFER_BYTES)) {
+                StringBuilder row = new StringBuilder(64);
+                for (int i = 0; i < userIds.size(); i++) {
+                    row.setLength(0);
+                    row.append(ids.get(i)).append(suffix).append(userIds.get(i)).append('\n');
+                    out.write(row.toString().getBytes(StandardCharsets.US_ASCII));
+                }
+            }
+            return ids;
+        } catch (SQLException | IOException ex) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                    "Falha ao gravar notificações em massa: " + ex.getMessage());
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    // Reserva ids em blocos, do mesmo jeito que o otimizador pooled do Hibernate: cada nextval
+    // devolve o topo de uma faixa de SEQUENCE_INCREMENT ids, então não há colisão com os ids da JPA
+    public List<Integer> reserveIds(int count) {
+        int blocks = (count + SEQUENCE_INCREMENT - 1) / SEQUENCE_INCREMENT;
+        List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval('notification_seq') FROM generate_series(1, ?)", Long.class, blocks);
+
+        List<Integer> ids = new ArrayList<>(count);
+        for (Long high : highs) {
+            for (long id = high - SEQUENCE_INCREMENT + 1; id <= high && ids.size() < count; id++) {
+                ids.add((int) id);
+            }
+        }
+        return ids;
+    }
+}
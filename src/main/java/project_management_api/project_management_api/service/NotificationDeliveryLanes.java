@@ -0,0 +1,120 @@
+package project_management_api.project_management_api.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import project_management_api.project_management_api.enums.NotificationPriority;
+
+// Uma fila limitada e um pool de threads por prioridade: um fan-out grande de chat (LOW) ocupa só as
+// threads da sua fila e nunca atrasa a entrega de uma notificação direta (HIGH).
+@Component
+public class NotificationDeliveryLanes {
+
+    private final Map<NotificationPriority, Lane> lanes = new EnumMap<>(NotificationPriority.class);
+
+    public NotificationDeliveryLanes(MeterRegistry meterRegistry,
+            @Value("${notification.lanes.high.threads:2}") int highThreads,
+            @Value("${notification.lanes.high.queue-capacity:1000}") int highCapacity,
+            @Value("${notification.lanes.normal.threads:4}") int normalThreads,
+            @Value("${notification.lanes.normal.queue-capacity:200}") int normalCapacity,
+            @Value("${notification.lanes.low.threads:2}") int lowThreads,
+            @Value("${notification.lanes.low.queue-capacity:200}") int lowCapacity) {
+        lanes.put(NotificationPriority.HIGH, new Lane(NotificationPriority.HIGH, highThreads, highCapacity,
+                meterRegistry));
+        lanes.put(NotificationPriority.NORMAL, new Lane(NotificationPriority.NORMAL, normalThreads, normalCapacity,
+                meterRegistry));
+        lanes.put(NotificationPriority.LOW, new Lane(NotificationPriority.LOW, lowThreads, lowCapacity,
+                meterRegistry));
+    }
+
+    // Fila cheia: a tarefa roda na thread de quem chamou, que fica freada em vez de perder a entrega
+    public void execute(NotificationPriority priority, Runnable task) {
+        Lane lane = lanes.get(priority);
+        lane.executor.execute(lane.measured(task));
+    }
+
+    // Executa o lote na fila e espera todos terminarem
+    public void invokeAll(NotificationPriority priority, List<Runnable> tasks) throws InterruptedException {
+        Lane lane = lanes.get(priority);
+        List<Callable<Void>> jobs = tasks.stream().<Callable<Void>>map(task -> {
+            Runnable measured = lane.measured(task);
+            return () -> {
+                measured.run();
+                return null;
+            };
+        }).toList();
+        lane.executor.invokeAll(jobs);
+    }
+
+    public int getQueueDepth(NotificationPriority priority) {
+        return lanes.get(priority).executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.values().forEach(lane -> lane.executor.shutdown());
+    }
+
+    private static final class Lane {
+
+        private final ThreadPoolExecutor executor;
+        private final Timer waitTimer;
+        private final Timer latencyTimer;
+
+        private Lane(NotificationPriority priority, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+            String name = priority.name().toLowerCase();
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable,
+                                "notification-" + name + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+
+            Gauge.builder("notification.lane.queue.depth", executor, pool -> pool.getQueue().size())
+                    .description("Entregas aguardando na fila da prioridade")
+                    .tag("lane", name)
+                    .register(meterRegistry);
+            Gauge.builder("notification.lane.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .description("Threads entregando notificações na prioridade")
+                    .tag("lane", name)
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("notification.lane.wait")
+                    .description("Tempo entre o enfileiramento e o início da entrega")
+                    .tag("lane", name)
+                    .register(meterRegistry);
+            this.latencyTimer = Timer.builder("notification.lane.latency")
+                    .description("Tempo entre o enfileiramento e o fim da entrega")
+                    .tag("lane", name)
+                    .register(meterRegistry);
+        }
+
+        private Runnable measured(Runnable task) {
+            long enqueuedAt = System.nanoTime();
+            return () -> {
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    latencyTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package project_management_api.project_management_api.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import project_management_api.project_management_api.repository.NotificationRepository;
+
+// Confirmações de entrega das notificações. A escrita no SSE só enfileira o id; um agendamento grava
+// delivered_at em lotes, com um UPDATE por lote, fora da thread que escreve no cliente.
+// A confirmação é "pelo menos uma vez": se a fila encher ou o UPDATE falhar, a notificação continua
+// em /me/undelivered e o cliente apenas a recebe de novo.
+@Component
+public class NotificationDeliveryTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDeliveryTracker.class);
+
+    private final ConcurrentLinkedQueue<Integer> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxPending;
+    private final Counter acknowledged;
+    private final Counter dropped;
+
+    public NotificationDeliveryTracker(NotificationRepository notificationRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${notification.delivery.batch-size:1000}") int batchSize,
+            @Value("${notification.delivery.max-pending:100000}") int maxPending) {
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+
+        Gauge.builder("notification.delivery.pending", pendingCount, AtomicInteger::get)
+                .description("Confirmações de entrega aguardando gravação")
+                .register(meterRegistry);
+        this.acknowledged = Counter.builder("notification.delivery.acknowledged")
+                .description("Notificações marcadas como entregues")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("notification.delivery.dropped")
+                .description("Confirmações descartadas com a fila cheia")
+                .register(meterRegistry);
+    }
+
+    public void markDelivered(Collection<Integer> notificationIds) {
+        for (Integer notificationId : notificationIds) {
+            if (pendingCount.incrementAndGet() > maxPending) {
+                pendingCount.decrementAndGet();
+                dropped.increment();
+                continue;
+            }
+            pending.add(notificationId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.delivery.flush-interval-ms:500}")
+    public void flush() {
+        List<Integer> batch = new ArrayList<>(Math.min(batchSize, pendingCount.get()));
+        Integer notificationId;
+        while ((notificationId = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            batch.add(notificationId);
+            if (batch.size() >= batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<Integer> batch) {
+        try {
+            Integer updated = transactionTemplate
+                    .execute(status -> notificationRepository.markDelivered(batch, LocalDateTime.now()));
+            acknowledged.increment(updated != null ? updated : 0);
+        } catch (Exception ex) {
+            log.warn("Falha ao gravar {} confirmações de entrega: {}", batch.size(), ex.getMessage());
+        }
+    }
+}
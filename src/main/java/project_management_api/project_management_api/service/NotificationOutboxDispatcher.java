@@ -0,0 +1,186 @@
+package project_management_api.project_management_api.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import project_management_api.project_management_api.enums.NotificationPriority;
+import project_management_api.project_management_api.enums.OutboxStatus;
+import project_management_api.project_management_api.model.NotificationOutbox;
+import project_management_api.project_management_api.repository.NotificationOutboxRepository;
+
+// Despacha em segundo plano os eventos gravados no outbox: busca um lote por prioridade, faz o fan-out
+// na fila daquela prioridade e reagenda com backoff exponencial os que falharem.
+// Cada prioridade tem seu próprio agendamento, então um lote LOW demorado não segura o próximo poll NORMAL.
+// Um evento que volta para PENDING (reagendado ou liberado por estar preso) é juntado ao PENDING de mesma
+// chave de coalescência, se houver, em vez de violar o índice único parcial dessa chave.
+@Component
+public class NotificationOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+
+    // Tentativas de devolver um evento à fila quando outro de mesma chave aparece no meio do caminho
+    private static final int REQUEUE_ATTEMPTS = 3;
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationDeliveryLanes deliveryLanes;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration staleAfter;
+
+    public NotificationOutboxDispatcher(NotificationOutboxRepository notificationOutboxRepository,
+            NotificationService notificationService, PlatformTransactionManager transactionManager,
+            NotificationDeliveryLanes deliveryLanes,
+            @Value("${notification.outbox.batch-size:100}") int batchSize,
+            @Value("${notification.outbox.max-attempts:8}") int maxAttempts,
+            @Value("${notification.outbox.base-backoff-ms:500}") long baseBackoffMs,
+            @Value("${notification.outbox.max-backoff-ms:300000}") long maxBackoffMs,
+            @Value("${notification.outbox.stale-after-ms:120000}") long staleAfterMs) {
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.deliveryLanes = deliveryLanes;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = Duration.ofMillis(baseBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.staleAfter = Duration.ofMillis(staleAfterMs);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:200}")
+    public void dispatchNormal() throws InterruptedException {
+        dispatch(NotificationPriority.NORMAL);
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:200}")
+    public void dispatchLow() throws InterruptedException {
+        dispatch(NotificationPriority.LOW);
+    }
+
+    void dispatch(NotificationPriority priority) throws InterruptedException {
+        List<Integer> claimed = transactionTemplate.execute(status -> claimBatch(priority));
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        List<Runnable> jobs = claimed.stream().<Runnable>map(id -> () -> dispatchOne(id)).toList();
+
+        // Aguarda o lote terminar antes do próximo poll; as threads da prioridade limitam a concorrência
+        deliveryLanes.invokeAll(priority, jobs);
+    }
+
+    // Eventos presos em PROCESSING (instância que caiu no meio do despacho) voltam para a fila, cada um em sua
+    // transação: a falha de um não impede a liberação dos outros
+    @Scheduled(fixedDelayString = "${notification.outbox.stale-check-interval-ms:60000}")
+    public void releaseStale() {
+        LocalDateTime staleBefore = LocalDateTime.now().minus(staleAfter);
+        for (Integer outboxId : notificationOutboxRepository.findStaleIds(OutboxStatus.PROCESSING, staleBefore)) {
+            try {
+                requeue(() -> notificationOutboxRepository.lockStale(outboxId, staleBefore)
+                        .ifPresent(event -> backToPending(event, event.getAvailableAt(), event.getAttempts(),
+                                event.getLastError())));
+            } catch (Exception ex) {
+                log.warn("Falha ao liberar o evento {} preso no outbox: {}", outboxId, ex.getMessage());
+            }
+        }
+    }
+
+    private List<Integer> claimBatch(NotificationPriority priority) {
+        List<NotificationOutbox> events = notificationOutboxRepository
+                .findDispatchableForUpdate(priority.name(), LocalDateTime.now(), batchSize);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (NotificationOutbox event : events) {
+            event.setStatus(OutboxStatus.PROCESSING);
+            event.setLockedAt(now);
+        }
+        notificationOutboxRepository.saveAll(events);
+
+        return events.stream().map(NotificationOutbox::getId).toList();
+    }
+
+    private void dispatchOne(Integer outboxId) {
+        try {
+            notificationService.fanOutProjectNotification(outboxId);
+        } catch (Exception ex) {
+            log.warn("Falha ao despachar notificação do outbox {}: {}", outboxId, ex.getMessage());
+            try {
+                requeue(() -> reschedule(outboxId, ex));
+            } catch (Exception rescheduleEx) {
+                // O evento fica em PROCESSING e volta para a fila pelo releaseStale()
+                log.warn("Falha ao reagendar o evento {} do outbox: {}", outboxId, rescheduleEx.getMessage());
+            }
+        }
+    }
+
+    private void reschedule(Integer outboxId, Exception cause) {
+        notificationOutboxRepository.findById(outboxId).ifPresent(event -> {
+            int attempts = event.getAttempts() + 1;
+            String lastError = abbreviate(cause.toString());
+            if (attempts < maxAttempts) {
+                backToPending(event, LocalDateTime.now().plus(backoff(attempts)), attempts, lastError);
+                return;
+            }
+
+            event.setAttempts(attempts);
+            event.setLockedAt(null);
+            event.setLastError(lastError);
+            event.setStatus(OutboxStatus.FAILED);
+            notificationOutboxRepository.save(event);
+        });
+    }
+
+    // Entre a tentativa de junção e o UPDATE para PENDING, outro evento de mesma chave pode ser criado: o índice
+    // único recusa o UPDATE, a transação volta e a tentativa seguinte junta os dois
+    private void requeue(Runnable action) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> action.run());
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt >= REQUEUE_ATTEMPTS) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    // Roda dentro da transação do requeue(), com o evento ainda em PROCESSING. A entidade só é alterada depois
+    // da tentativa de junção, para não haver UPDATE pendente de uma linha que a junção apagou.
+    private void backToPending(NotificationOutbox event, LocalDateTime availableAt, int attempts, String lastError) {
+        if (event.getCoalesceKey() != null
+                && notificationOutboxRepository.mergeIntoPendingSibling(event.getId()) > 0) {
+            log.debug("Evento {} do outbox juntado ao pendente de chave {}", event.getId(), event.getCoalesceKey());
+            return;
+        }
+
+        event.setAttempts(attempts);
+        event.setLastError(lastError);
+        event.setStatus(OutboxStatus.PENDING);
+        event.setLockedAt(null);
+        event.setAvailableAt(availableAt);
+        notificationOutboxRepository.saveAndFlush(event);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = baseBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String abbreviate(String text) {
+        return text.length() <= 1000 ? text : text.substring(0, 1000);
+    }
+}
@@ -0,0 +1,59 @@
+package project_management_api.project_management_api.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import project_management_api.project_management_api.enums.NotificationCategory;
+import project_management_api.project_management_api.model.NotificationPreference;
+import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.NotificationPreferenceRepository;
+
+// Aplica as preferências de notificação no fan-out, antes de criar linhas ou enviar SSE.
+// As preferências do projeto são lidas do banco a cada evento (só existem linhas de quem mudou o padrão), então
+// todas as instâncias da API enxergam uma alteração assim que ela é gravada. O feed FAN_OUT_ON_READ aplica as
+// mesmas regras na consulta (NotificationEventRepository.ACCEPTED_BY_PREFERENCES).
+@Component
+public class NotificationPreferenceFilter {
+
+    private final NotificationPreferenceRepository notificationPreferenceRepository;
+
+    public NotificationPreferenceFilter(NotificationPreferenceRepository notificationPreferenceRepository) {
+        this.notificationPreferenceRepository = notificationPreferenceRepository;
+    }
+
+    // Membros que devem receber uma notificação da categoria; taskOwnerId é o responsável pela task, se houver
+    public List<User> filterRecipients(Integer projectId, NotificationCategory category, Integer taskOwnerId,
+            List<User> members) {
+        Map<Integer, NotificationPreference> preferences = notificationPreferenceRepository.findByProjectId(projectId)
+                .stream()
+                .collect(Collectors.toMap(NotificationPreference::getUserId, Function.identity()));
+        if (preferences.isEmpty()) {
+            return members;
+        }
+
+        return members.stream()
+                .filter(user -> accepts(preferences.get(user.getId()), user.getId(), category, taskOwnerId))
+                .toList();
+    }
+
+    private static boolean accepts(NotificationPreference preference, Integer userId, NotificationCategory category,
+            Integer taskOwnerId) {
+        if (preference == null) {
+            return true;
+        }
+        if (preference.isMuteProject()) {
+            return false;
+        }
+        if (category == NotificationCategory.CHAT) {
+            return !preference.isMuteChat();
+        }
+        if (category == NotificationCategory.TASK && preference.isOnlyAssignedTasks()) {
+            return userId.equals(taskOwnerId);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,73 @@
+package project_management_api.project_management_api.service;
+
+import static project_management_api.project_management_api.service.TransactionCallbacks.afterCommit;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import jakarta.transaction.Transactional;
+import project_management_api.project_management_api.dto.NotificationPreferenceDTO;
+import project_management_api.project_management_api.model.NotificationPreference;
+import project_management_api.project_management_api.repository.NotificationPreferenceRepository;
+import project_management_api.project_management_api.repository.ProjectRepository;
+
+@Service
+public class NotificationPreferenceService {
+
+    private final NotificationPreferenceRepository notificationPreferenceRepository;
+    private final UnreadNotificationCounter unreadNotificationCounter;
+    private final ProjectRepository projectRepository;
+    private final UserService userService;
+
+    public NotificationPreferenceService(NotificationPreferenceRepository notificationPreferenceRepository,
+            UnreadNotificationCounter unreadNotificationCounter, ProjectRepository projectRepository,
+            UserService userService) {
+        this.notificationPreferenceRepository = notificationPreferenceRepository;
+        this.unreadNotificationCounter = unreadNotificationCounter;
+        this.projectRepository = projectRepository;
+        this.userService = userService;
+    }
+
+    public NotificationPreferenceDTO getPreferences(Integer projectId) {
+        Integer userId = userService.getAuthenticatedUserId();
+        checkMembership(projectId, userId);
+
+        return notificationPreferenceRepository.findById(new NotificationPreference.Key(userId, projectId))
+                .map(this::toDTO)
+                .orElseGet(() -> new NotificationPreferenceDTO(projectId, false, false, false));
+    }
+
+    @Transactional
+    public NotificationPreferenceDTO updatePreferences(Integer projectId, NotificationPreferenceDTO preferencesDto) {
+        Integer userId = userService.getAuthenticatedUserId();
+        checkMembership(projectId, userId);
+
+        NotificationPreference preference = new NotificationPreference();
+        preference.setUserId(userId);
+        preference.setProjectId(projectId);
+        preference.setMuteProject(preferencesDto.isMuteProject());
+        preference.setMuteChat(preferencesDto.isMuteChat());
+        preference.setOnlyAssignedTasks(preferencesDto.isOnlyAssignedTasks());
+        notificationPreferenceRepository.save(preference);
+
+        // No FAN_OUT_ON_READ a preferência muda quais eventos do projeto contam como não lidos
+        afterCommit(() -> unreadNotificationCounter.invalidate(userId));
+
+        return toDTO(preference);
+    }
+
+    private void checkMembership(Integer projectId, Integer userId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Projeto não encontrado: " + projectId);
+        }
+        if (!projectRepository.existsByIdAndUsers_Id(projectId, userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Você não faz parte deste projeto.");
+        }
+    }
+
+    private NotificationPreferenceDTO toDTO(NotificationPreference preference) {
+        return new NotificationPreferenceDTO(preference.getProjectId(), preference.isMuteProject(),
+                preference.isMuteChat(), preference.isOnlyAssignedTasks());
+    }
+}
@@ -0,0 +1,184 @@
+package project_management_api.project_management_api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Retenção da tabela notification: apaga (ou arquiva) notificações lidas antigas em lotes pequenos,
+// para não segurar locks longos nem gerar picos de WAL, e descarta partições mensais inteiras fora da retenção.
+// Uma partição só sai quando não tem nenhuma notificação não lida, então o descarte não muda as contagens de não
+// lidas (nem os contadores do UnreadNotificationCounter). No modo ARCHIVE, as linhas da partição vão para
+// notification_archive antes do DROP. Eventos de projeto FAN_OUT_ON_READ não têm linhas em notification: saem
+// só quando todos os membros do projeto já os leram (marca de leitura depois do evento) e passaram da retenção.
+@Component
+public class NotificationRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetentionJob.class);
+
+    private static final String SELECT_BATCH = "SELECT id, time FROM notification "
+            + "WHERE status = 'READ' AND time < ? LIMIT ?";
+
+    private static final String DELETE_BATCH = "DELETE FROM notification WHERE (id, time) IN (" + SELECT_BATCH + ")";
+
+    private static final String ARCHIVED_COLUMNS = "id, text_notification, event_id, status, time, user_destin_id";
+
+    private static final String ARCHIVE_INSERT = "INSERT INTO notification_archive (" + ARCHIVED_COLUMNS
+            + ", archived_at) SELECT " + ARCHIVED_COLUMNS + ", now() FROM ";
+
+    private static final String ARCHIVE_BATCH = "WITH moved AS (" + DELETE_BATCH + " RETURNING " + ARCHIVED_COLUMNS
+            + ") " + ARCHIVE_INSERT + "moved";
+
+    // %s é a partição já desanexada (PartitionMaintenance.removePartitionsOlderThan)
+    private static final String ARCHIVE_PARTITION = ARCHIVE_INSERT + "%s";
+
+    private static final String KEEP_PARTITION_WHERE = "status = 'NOT_READ'";
+
+    // Eventos compartilhados que nenhuma notificação (nem arquivada) referencia mais. Eventos FAN_OUT_ON_READ
+    // nunca têm notificações e ficam de fora (DELETE_READ_PROJECT_EVENTS)
+    private static final String DELETE_ORPHAN_EVENTS = "DELETE FROM notification_event WHERE id IN ("
+            + "SELECT e.id FROM notification_event e WHERE NOT e.fan_out_on_read AND e.created_at < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM notification n WHERE n.event_id = e.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM notification_archive a WHERE a.event_id = e.id) LIMIT ?)";
+
+    // Eventos FAN_OUT_ON_READ que nenhum membro do projeto tem como não lido
+    private static final String DELETE_READ_PROJECT_EVENTS = "DELETE FROM notification_event WHERE id IN ("
+            + "SELECT e.id FROM notification_event e WHERE e.fan_out_on_read AND e.created_at < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM user_project up LEFT JOIN project_read_watermark w "
+            + "ON w.user_id = up.user_id AND w.project_id = up.project_id WHERE up.project_id = e.project_id "
+            + "AND (w.read_up_to IS NULL OR w.read_up_to < e.created_at)) LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PartitionMaintenance partitionMaintenance;
+    private final boolean enabled;
+    private final boolean archive;
+    private final int readRetentionDays;
+    private final int batchSize;
+    private final long pauseBetweenBatchesMs;
+    private final int partitionRetentionMonths;
+    private final int monthsAhead;
+    private final Counter purgedRows;
+    private final Counter droppedPartitions;
+    private final Timer purgeTimer;
+
+    public NotificationRetentionJob(JdbcTemplate jdbcTemplate, PartitionMaintenance partitionMaintenance,
+            MeterRegistry meterRegistry,
+            @Value("${notification.retention.enabled:true}") boolean enabled,
+            @Value("${notification.retention.mode:DELETE}") String mode,
+            @Value("${notification.retention.read-days:90}") int readRetentionDays,
+            @Value("${notification.retention.batch-size:1000}") int batchSize,
+            @Value("${notification.retention.pause-between-batches-ms:50}") long pauseBetweenBatchesMs,
+            @Value("${notification.retention.partition-months:12}") int partitionRetentionMonths,
+            @Value("${notification.retention.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionMaintenance = partitionMaintenance;
+        this.enabled = enabled;
+        this.archive = "ARCHIVE".equalsIgnoreCase(mode);
+        this.readRetentionDays = readRetentionDays;
+        this.batchSize = batchSize;
+        this.pauseBetweenBatchesMs = pauseBetweenBatchesMs;
+        this.partitionRetentionMonths = partitionRetentionMonths;
+        this.monthsAhead = monthsAhead;
+        this.purgedRows = Counter.builder("notification.retention.purged")
+                .description("Notificações lidas removidas pela retenção")
+                .tag("mode", archive ? "archive" : "delete")
+                .register(meterRegistry);
+        this.droppedPartitions = Counter.builder("notification.retention.partitions.dropped")
+                .description("Partições mensais descartadas pela retenção")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("notification.retention.duration")
+                .description("Tempo gasto em cada execução da retenção")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${notification.retention.cron:0 30 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+
+        purgeTimer.record(() -> {
+            partitionMaintenance.ensureMonthlyPartitions("notification", monthsAhead);
+            long purged = purgeReadNotifications();
+            int dropped = dropExpiredPartitions();
+            long orphans = purgeOrphanEvents();
+            long projectEvents = purgeReadProjectEvents();
+            log.info("Retenção de notificações: {} linhas removidas, {} partições descartadas, {} eventos órfãos, "
+                    + "{} eventos de projeto lidos", purged, dropped, orphans, projectEvents);
+        });
+    }
+
+    // Cada lote roda em sua própria transação curta (auto-commit do JdbcTemplate)
+    public long purgeReadNotifications() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(readRetentionDays);
+        String sql = archive ? ARCHIVE_BATCH : DELETE_BATCH;
+        long total = 0;
+
+        int affected;
+        do {
+            affected = jdbcTemplate.update(sql, cutoff, batchSize);
+            total += affected;
+            purgedRows.increment(affected);
+            pause();
+        } while (affected == batchSize);
+
+        return total;
+    }
+
+    // Só olha eventos mais velhos que a retenção: um evento recente pode ainda estar no meio do fan-out
+    public long purgeOrphanEvents() {
+        return deleteEventsOlderThanRetention(DELETE_ORPHAN_EVENTS);
+    }
+
+    // Mesma regra das notificações diretas: só sai o que já foi lido, então as contagens de não lidas não mudam
+    public long purgeReadProjectEvents() {
+        return deleteEventsOlderThanRetention(DELETE_READ_PROJECT_EVENTS);
+    }
+
+    public int dropExpiredPartitions() {
+        if (partitionRetentionMonths <= 0) {
+            return 0;
+        }
+
+        int dropped = partitionMaintenance.removePartitionsOlderThan("notification",
+                LocalDate.now().withDayOfMonth(1).minusMonths(partitionRetentionMonths),
+                KEEP_PARTITION_WHERE, archive ? ARCHIVE_PARTITION : null);
+        droppedPartitions.increment(dropped);
+        return dropped;
+    }
+
+    private long deleteEventsOlderThanRetention(String sql) {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(readRetentionDays);
+        long total = 0;
+
+        int affected;
+        do {
+            affected = jdbcTemplate.update(sql, cutoff, batchSize);
+            total += affected;
+            pause();
+        } while (affected == batchSize);
+
+        return total;
+    }
+
+    private void pause() {
+        if (pauseBetweenBatchesMs <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(pauseBetweenBatchesMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,24 +1,48 @@
 package project_management_api.project_management_api.service;
 
+import static project_management_api.project_management_api.service.TransactionCallbacks.afterCommit;
+
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import jakarta.transaction.Transactional;
 
-import project_management_api.project_management_api.controller.SseController;
+import project_management_api.project_management_api.dto.NotificationBulkReadReturnDTO;
 import project_management_api.project_management_api.dto.NotificationInputDTOToProject;
 import project_management_api.project_management_api.dto.NotificationInputDTOToUser;
+import project_management_api.project_management_api.dto.NotificationPageReturnDTO;
 import project_management_api.project_management_api.dto.NotificationReturnDTO;
 import project_management_api.project_management_api.dto.NotificationReturnDTOTProject;
+import project_management_api.project_management_api.dto.NotificationUnreadCountReturnDTO;
+import project_management_api.project_management_api.enums.NotificationPriority;
 import project_management_api.project_management_api.enums.NotificationStatus;
+import project_management_api.project_management_api.enums.NotificationTemplate;
+import project_management_api.project_management_api.enums.ProjectNotificationStorage;
 import project_management_api.project_management_api.model.Notification;
+import project_management_api.project_management_api.model.NotificationEvent;
+import project_management_api.project_management_api.model.NotificationOutbox;
 import project_management_api.project_management_api.model.Project;
+import project_management_api.project_management_api.model.ProjectReadWatermark;
 import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.NotificationEventRepository;
+import project_management_api.project_management_api.repository.NotificationOutboxRepository;
 import project_management_api.project_management_api.repository.NotificationRepository;
+import project_management_api.project_management_api.repository.ProjectReadWatermarkRepository;
+import project_management_api.project_management_api.repository.ProjectUnreadEvents;
 import project_management_api.project_management_api.repository.ProjectRepository;
 import project_management_api.project_management_api.repository.UserRepository;
 import org.springframework.context.annotation.Lazy;
@@ -26,70 +50,224 @@ import org.springframework.context.annotation.Lazy;
 @Service
 public class NotificationService {
 
+        private static final int DEFAULT_PAGE_SIZE = 20;
+        private static final int MAX_PAGE_SIZE = 100;
+        private static final ObjectMapper PARAMS_MAPPER = new ObjectMapper();
+
+        // Filtro de leitura das consultas de eventos de projeto (NotificationEventRepository.PROJECT_FEED)
+        private static final int READ_STATE_ALL = 0;
+        private static final int READ_STATE_UNREAD = 1;
+        private static final int READ_STATE_READ = 2;
+
         private final NotificationRepository notificationRepository;
+        private final NotificationOutboxRepository notificationOutboxRepository;
+        private final NotificationEventRepository notificationEventRepository;
+        private final ProjectReadWatermarkRepository projectReadWatermarkRepository;
         private final UserRepository userRepository;
         private final ProjectRepository projectRepository;
-        private final SseController sseController; // Mantido, pois é o responsável pela tecnologia SSE
+        private final SseSubscriptionRegistry sseSubscriptionRegistry; // Responsável pela entrega via SSE
+        private final UnreadNotificationCounter unreadNotificationCounter;
+        private final NotificationBulkWriter notificationBulkWriter;
+        private final NotificationPreferenceFilter notificationPreferenceFilter;
+        private final NotificationDeliveryLanes notificationDeliveryLanes;
+        private final NotificationDeliveryTracker notificationDeliveryTracker;
         private final UserService userService;
-
-        public NotificationService(NotificationRepository notificationRepository, UserRepository userRepository,
-                        ProjectRepository projectRepository, SseController sseController,
-                        @Lazy UserService userService) {
+        // Janela em que atualizações seguidas da mesma task viram uma única notificação (0 desativa)
+        private final long coalesceWindowMs;
+        // FAN_OUT_ON_READ grava só o evento de projeto, sem uma linha por membro
+        private final ProjectNotificationStorage projectStorage;
+        // A partir de quantos destinatários o fan-out usa COPY em vez de saveAll (0 desativa)
+        private final int copyThreshold;
+
+        public NotificationService(NotificationRepository notificationRepository,
+                        NotificationOutboxRepository notificationOutboxRepository,
+                        NotificationEventRepository notificationEventRepository,
+                        ProjectReadWatermarkRepository projectReadWatermarkRepository, UserRepository userRepository,
+                        ProjectRepository projectRepository, SseSubscriptionRegistry sseSubscriptionRegistry,
+                        UnreadNotificationCounter unreadNotificationCounter,
+                        NotificationBulkWriter notificationBulkWriter,
+                        NotificationPreferenceFilter notificationPreferenceFilter,
+                        NotificationDeliveryLanes notificationDeliveryLanes,
+                        NotificationDeliveryTracker notificationDeliveryTracker, @Lazy UserService userService,
+                        @Value("${notification.coalesce.window-ms:5000}") long coalesceWindowMs,
+                        @Value("${notification.project.storage-mode:FAN_OUT_ON_WRITE}")
+                        ProjectNotificationStorage projectStorage,
+                        @Value("${notification.bulk.copy-threshold:1000}") int copyThreshold) {
                 this.notificationRepository = notificationRepository;
+                this.notificationOutboxRepository = notificationOutboxRepository;
+                this.notificationEventRepository = notificationEventRepository;
+                this.projectReadWatermarkRepository = projectReadWatermarkRepository;
                 this.userRepository = userRepository;
                 this.projectRepository = projectRepository;
-                this.sseController = sseController;
+                this.sseSubscriptionRegistry = sseSubscriptionRegistry;
+                this.unreadNotificationCounter = unreadNotificationCounter;
+                this.notificationBulkWriter = notificationBulkWriter;
+                this.notificationPreferenceFilter = notificationPreferenceFilter;
+                this.notificationDeliveryLanes = notificationDeliveryLanes;
+                this.notificationDeliveryTracker = notificationDeliveryTracker;
                 this.userService = userService;
+                this.coalesceWindowMs = coalesceWindowMs;
+                this.projectStorage = projectStorage;
+                this.copyThreshold = copyThreshold;
         }
 
         public NotificationReturnDTO toNotificationDTO(Notification notification) {
                 return new NotificationReturnDTO(
                                 notification.getId(),
-                                notification.getTextNotification(),
+                                renderText(notification),
                                 notification.getStatus(),
                                 notification.getTime(),
                                 notification.getUserDestin() != null ? notification.getUserDestin().getId() : null);
         }
 
+        // Notificações de projeto guardam só a referência ao evento; o texto é montado aqui, na leitura
+        private String renderText(Notification notification) {
+                return notification.getEvent() != null ? notification.getEvent().render()
+                                : notification.getTextNotification();
+        }
+
+        // Eventos de projeto lidos direto do log (FAN_OUT_ON_READ) aparecem no feed com id negativo,
+        // para não colidir com os ids de notification; o status vem da marca de leitura do projeto
+        private NotificationReturnDTO toProjectEventDTO(NotificationEvent event, Integer userId,
+                        Map<Integer, LocalDateTime> watermarks) {
+                LocalDateTime readUpTo = watermarks.getOrDefault(event.getProjectId(),
+                                ProjectReadWatermark.NEVER_READ);
+                NotificationStatus status = event.getCreatedAt().isAfter(readUpTo) ? NotificationStatus.NOT_READ
+                                : NotificationStatus.READ;
+                return new NotificationReturnDTO(-event.getId(), event.render(), status, event.getCreatedAt(), userId);
+        }
+
+        private boolean fanOutOnRead() {
+                return projectStorage == ProjectNotificationStorage.FAN_OUT_ON_READ;
+        }
+
+        private NotificationTemplate templateOf(NotificationInputDTOToProject notificationDto) {
+                return notificationDto.getTemplate() != null ? notificationDto.getTemplate() : NotificationTemplate.TEXT;
+        }
+
+        private List<String> paramsOf(NotificationInputDTOToProject notificationDto) {
+                if (notificationDto.getTemplate() == null) {
+                        if (notificationDto.getTextNotification() == null) {
+                                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                                "Informe o texto ou o modelo da notificação.");
+                        }
+                        return List.of(notificationDto.getTextNotification());
+                }
+                return notificationDto.getParams() != null ? notificationDto.getParams() : List.of();
+        }
+
         private User findUserOrThrow(Integer userId) {
                 return userRepository.findById(userId)
                                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                                                 "Usuário não encontrado: " + userId));
         }
 
-        private Project findProjectOrThrow(Integer projectId) {
-                return projectRepository.findById(projectId)
-                                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
-                                                "Projeto não encontrado: " + projectId));
-        }
-
         private Notification findNotificationOrThrow(Integer notificationId) {
                 return notificationRepository.findById(notificationId)
                                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                                                 "Notificação não encontrada: " + notificationId));
         }
 
+        // Grava apenas o evento no outbox, na mesma transação de quem chamou. O fan-out para os membros
+        // acontece depois do commit (fanOutProjectNotification), então a latência não depende do tamanho do projeto.
         @Transactional
         public NotificationReturnDTOTProject sendNotificationToProject(NotificationInputDTOToProject notificationDto) {
-                Project project = findProjectOrThrow(notificationDto.getProjectId());
+                if (!projectRepository.existsById(notificationDto.getProjectId())) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                                        "Projeto não encontrado: " + notificationDto.getProjectId());
+                }
 
-                List<Notification> notifications = project.getUsers().stream()
-                                .map(user -> {
-                                        Notification n = new Notification();
-                                        n.setTextNotification(notificationDto.getTextNotification());
-                                        n.setTime(LocalDateTime.now());
-                                        n.setUserDestin(user);
-                                        return n;
-                                })
-                                .toList();
+                NotificationTemplate template = templateOf(notificationDto);
+                List<String> params = paramsOf(notificationDto);
+
+                if (notificationDto.getTaskId() != null && coalesceWindowMs > 0) {
+                        LocalDateTime now = LocalDateTime.now();
+                        String coalesceKey = "project:" + notificationDto.getProjectId() + ":task:"
+                                        + notificationDto.getTaskId();
+                        notificationOutboxRepository.upsertCoalesced(notificationOutboxRepository.nextId(),
+                                        notificationDto.getProjectId(), template.name(),
+                                        toJson(params), notificationDto.getTaskOwnerId(),
+                                        template.getPriority().name(), coalesceKey, now,
+                                        now.plus(Duration.ofMillis(coalesceWindowMs)));
+                } else {
+                        NotificationOutbox event = new NotificationOutbox();
+                        event.setProjectId(notificationDto.getProjectId());
+                        event.setTemplate(template);
+                        event.setParams(params);
+                        event.setTaskOwnerId(notificationDto.getTaskOwnerId());
+                        event.setPriority(template.getPriority());
+                        notificationOutboxRepository.save(event);
+                }
+
+                return new NotificationReturnDTOTProject(notificationDto.getProjectId(), template.render(params),
+                                (int) projectRepository.countUsersById(notificationDto.getProjectId()));
+        }
 
-                notificationRepository.saveAll(notifications);
+        // Chamado pelo NotificationOutboxDispatcher, fora da transação original
+        @Transactional
+        public int fanOutProjectNotification(Integer outboxId) {
+                NotificationOutbox event = notificationOutboxRepository.findById(outboxId).orElse(null);
+                if (event == null) {
+                        return 0;
+                }
 
-                sseController.sendNotification(project.getName() + "| " + project.getStatus() + "\n"
-                                + notificationDto.getTextNotification());
-                return new NotificationReturnDTOTProject(project.getId(), notificationDto.getTextNotification(),
-                                notifications.size());
+                Project project = projectRepository.findById(event.getProjectId()).orElse(null);
+                if (project == null) {
+                        // Projeto excluído antes do despacho: não há mais para quem notificar
+                        notificationOutboxRepository.delete(event);
+                        return 0;
+                }
 
+                // Um único evento guarda modelo e parâmetros; as linhas dos membros só apontam para ele.
+                // Evento que absorveu outras atualizações da mesma task dentro da janela vira um resumo.
+                // O horário é o do despacho, não o do enfileiramento: a marca de leitura do FAN_OUT_ON_READ compara
+                // por createdAt, e um evento com o horário do outbox poderia nascer já antes dela.
+                NotificationEvent shared = new NotificationEvent();
+                shared.setTemplate(event.getTemplate());
+                shared.setParams(event.getParams());
+                shared.setProjectId(project.getId());
+                shared.setCategory(event.getTemplate().getCategory());
+                shared.setTaskOwnerId(event.getTaskOwnerId());
+                shared.setCoalescedCount(event.getCoalescedCount());
+                shared.setCreatedAt(LocalDateTime.now());
+                shared.setFanOutOnRead(fanOutOnRead());
+                notificationEventRepository.save(shared);
+
+                String text = shared.render();
+
+                // Membros que silenciaram o projeto ou a categoria não custam linha, SSE nem contador
+                List<User> recipients = notificationPreferenceFilter.filterRecipients(project.getId(),
+                                event.getTemplate().getCategory(), event.getTaskOwnerId(), project.getUsers());
+                List<Integer> memberIds = recipients.stream().map(User::getId).toList();
+
+                // No FAN_OUT_ON_READ o evento basta: o custo de escrita não depende do número de membros.
+                // Nesse modo não há linha por membro, então também não há entrega a confirmar.
+                List<Integer> notificationIds = null;
+                if (!shared.isFanOutOnRead() && copyThreshold > 0 && memberIds.size() >= copyThreshold) {
+                        notificationIds = notificationBulkWriter.copyProjectNotifications(shared.getId(),
+                                        shared.getCreatedAt(), memberIds);
+                } else if (!shared.isFanOutOnRead()) {
+                        List<Notification> notifications = recipients.stream()
+                                        .map(user -> {
+                                                Notification n = new Notification();
+                                                n.setEvent(shared);
+                                                n.setTime(shared.getCreatedAt());
+                                                n.setUserDestin(user);
+                                                return n;
+                                        })
+                                        .toList();
+                        notificationRepository.saveAll(notifications);
+                        notificationIds = notifications.stream().map(Notification::getId).toList();
+                }
+                notificationOutboxRepository.delete(event);
+
+                String sseMessage = project.getName() + "| " + project.getStatus() + "\n" + text;
+                List<Integer> deliveryIds = notificationIds;
+                afterCommit(() -> {
+                        unreadNotificationCounter.increment(memberIds);
+                        sseSubscriptionRegistry.sendToProject(project.getId(), memberIds, deliveryIds, sseMessage);
+                });
+                return memberIds.size();
         }
 
         @Transactional
@@ -102,7 +280,13 @@ public class NotificationService {
                 notification.setUserDestin(user);
 
                 notificationRepository.save(notification);
-                sseController.sendNotification(user.getName() + ":\n" + notification.getTextNotification());
+
+                // Notificação direta vai pela fila HIGH, separada dos fan-outs de projeto
+                String sseMessage = user.getName() + ":\n" + notification.getTextNotification();
+                afterCommit(() -> notificationDeliveryLanes.execute(NotificationPriority.HIGH, () -> {
+                        unreadNotificationCounter.increment(user.getId());
+                        sseSubscriptionRegistry.sendToUser(user.getId(), notification.getId(), sseMessage);
+                }));
                 return toNotificationDTO(notification);
         }
 
@@ -110,6 +294,10 @@ public class NotificationService {
         public NotificationReturnDTO markRead(Integer notificationId) {
 
                 User user = userService.getAuthenticatedUser();
+                if (notificationId < 0) {
+                        return markProjectEventRead(user.getId(), -notificationId);
+                }
+
                 Notification notification = findNotificationOrThrow(notificationId);
 
                 if (!notification.getUserDestin().getId().equals(user.getId())) {
@@ -123,38 +311,218 @@ public class NotificationService {
 
                 notification.setStatus(NotificationStatus.READ);
                 notificationRepository.save(notification);
+                afterCommit(() -> unreadNotificationCounter.decrement(user.getId(), 1));
                 return toNotificationDTO(notification);
         }
 
+        // Avança a marca de leitura até o evento: no FAN_OUT_ON_READ ler um evento lê também os anteriores do projeto
+        private NotificationReturnDTO markProjectEventRead(Integer userId, Integer eventId) {
+                NotificationEvent event = notificationEventRepository.findVisibleProjectEvents(userId, List.of(eventId))
+                                .stream().findFirst()
+                                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                                                "Notificação não encontrada: " + -eventId));
+
+                long read = advanceWatermark(userId, event.getProjectId(), event.getCreatedAt());
+                if (read == 0) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Essa mensagem já havia sido lida.");
+                }
+
+                return toProjectEventDTO(event, userId, Map.of(event.getProjectId(), event.getCreatedAt()));
+        }
+
+        private long advanceWatermark(Integer userId, Integer projectId, LocalDateTime readUpTo) {
+                long read = notificationEventRepository.countUnreadProjectEventsUpTo(userId, projectId, readUpTo,
+                                ProjectReadWatermark.NEVER_READ);
+                if (read > 0) {
+                        projectReadWatermarkRepository.advance(userId, projectId, readUpTo);
+                        afterCommit(() -> unreadNotificationCounter.decrement(userId, read));
+                }
+                return read;
+        }
+
         @Transactional
-        public List<NotificationReturnDTO> markAllRead() {
+        public NotificationBulkReadReturnDTO markAllRead() {
                 User user = userService.getAuthenticatedUser();
 
-                List<Notification> list = user.getNotifications().stream()
-                                .map(n -> {
-                                        n.setStatus(NotificationStatus.READ);
-                                        return n;
-                                }).toList();
+                int updated = notificationRepository.updateStatusByUser(user.getId(), NotificationStatus.NOT_READ,
+                                NotificationStatus.READ);
+
+                // Cada marca vai só até o evento não lido mais recente que existe agora, e não até now(): um evento
+                // despachado depois desta leitura continua não lido mesmo que tenha sido enfileirado antes dela
+                long projectEvents = 0;
+                for (ProjectUnreadEvents unread : notificationEventRepository.findUnreadByProject(user.getId(),
+                                ProjectReadWatermark.NEVER_READ)) {
+                        projectReadWatermarkRepository.advance(user.getId(), unread.getProjectId(),
+                                        unread.getLatest());
+                        projectEvents += unread.getUnread();
+                }
+
+                long total = updated + projectEvents;
+                afterCommit(() -> unreadNotificationCounter.decrement(user.getId(), total));
+
+                return new NotificationBulkReadReturnDTO((int) total);
+        }
+
+        @Transactional
+        public NotificationBulkReadReturnDTO markReadByIds(List<Integer> notificationIds) {
+                if (notificationIds == null || notificationIds.isEmpty()) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                                        "Informe ao menos uma notificação para marcar como lida.");
+                }
+
+                User user = userService.getAuthenticatedUser();
+
+                // Ids negativos são eventos de projeto do feed mesclado (FAN_OUT_ON_READ)
+                List<Integer> directIds = notificationIds.stream().filter(id -> id > 0).toList();
+                List<Integer> eventIds = notificationIds.stream().filter(id -> id < 0).map(id -> -id).toList();
+
+                int updated = 0;
+                if (!directIds.isEmpty()) {
+                        // O filtro por destinatário garante que só as notificações do próprio usuário são alteradas
+                        updated = notificationRepository.updateStatusByUserAndIds(user.getId(), directIds,
+                                        NotificationStatus.NOT_READ, NotificationStatus.READ);
+                        int direct = updated;
+                        afterCommit(() -> unreadNotificationCounter.decrement(user.getId(), direct));
+                }
+
+                if (!eventIds.isEmpty()) {
+                        // Uma marca por projeto, até o evento mais recente pedido
+                        Map<Integer, LocalDateTime> readUpTo = new HashMap<>();
+                        for (NotificationEvent event : notificationEventRepository
+                                        .findVisibleProjectEvents(user.getId(), eventIds)) {
+                                readUpTo.merge(event.getProjectId(), event.getCreatedAt(),
+                                                (a, b) -> a.isAfter(b) ? a : b);
+                        }
+                        for (Map.Entry<Integer, LocalDateTime> entry : readUpTo.entrySet()) {
+                                updated += advanceWatermark(user.getId(), entry.getKey(), entry.getValue());
+                        }
+                }
+
+                return new NotificationBulkReadReturnDTO(updated);
+        }
 
-                notificationRepository.saveAll(list);
+        // Só o que o cliente ainda não recebeu (nem por SSE nem por esta consulta), para a reconexão não
+        // precisar recarregar a lista inteira. O que for devolvido aqui passa a contar como entregue.
+        public List<NotificationReturnDTO> getUndeliveredNotifications(Integer afterId, Integer limit) {
+                User user = userService.getAuthenticatedUser();
+                int pageSize = KeysetCursor.pageSize(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
 
-                return list.stream().map(n -> toNotificationDTO(n)).toList();
+                List<Notification> undelivered = notificationRepository.findUndelivered(user.getId(),
+                                NotificationStatus.NOT_READ, afterId != null ? afterId : 0,
+                                PageRequest.of(0, pageSize));
 
+                notificationDeliveryTracker.markDelivered(undelivered.stream().map(Notification::getId).toList());
+                return undelivered.stream().map(this::toNotificationDTO).toList();
         }
 
-        public List<NotificationReturnDTO> getNotificationsByUser() {
+        // Vale só para notificações diretas: a marca de leitura de projeto não representa intervalos
+        @Transactional
+        public NotificationBulkReadReturnDTO markReadByTimeRange(LocalDateTime from, LocalDateTime to) {
+                if (from == null || to == null || !from.isBefore(to)) {
+                        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Intervalo de datas inválido.");
+                }
+
                 User user = userService.getAuthenticatedUser();
 
-                return user.getNotifications().stream().map(n -> toNotificationDTO(n)).toList();
+                int updated = notificationRepository.updateStatusByUserAndTimeRange(user.getId(), from, to,
+                                NotificationStatus.NOT_READ, NotificationStatus.READ);
+                afterCommit(() -> unreadNotificationCounter.decrement(user.getId(), updated));
 
+                return new NotificationBulkReadReturnDTO(updated);
         }
 
-        public List<NotificationReturnDTO> getNotificationsNotRead() {
+        public NotificationPageReturnDTO getNotificationsByUser(NotificationStatus status, String cursor,
+                        Integer limit) {
                 User user = userService.getAuthenticatedUser();
+                int pageSize = KeysetCursor.pageSize(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+
+                // Busca um item a mais só para saber se existe próxima página
+                Pageable pageable = PageRequest.of(0, pageSize + 1);
+                KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+
+                List<Notification> direct;
+                if (status == null) {
+                        direct = after == null
+                                        ? notificationRepository.findFeed(user.getId(), pageable)
+                                        : notificationRepository.findFeedBefore(user.getId(), after.getTime(),
+                                                        after.getId(), pageable);
+                } else {
+                        direct = after == null
+                                        ? notificationRepository.findFeedByStatus(user.getId(), status, pageable)
+                                        : notificationRepository.findFeedByStatusBefore(user.getId(), status,
+                                                        after.getTime(), after.getId(), pageable);
+                }
 
-                return user.getNotifications().stream().filter(n -> n.getStatus().equals(NotificationStatus.NOT_READ))
-                                .map(n -> toNotificationDTO(n)).toList();
+                // Eventos de projeto do FAN_OUT_ON_READ entram no mesmo feed. Consultados mesmo no modo
+                // FAN_OUT_ON_WRITE, para que eventos gravados antes de uma troca de modo continuem visíveis.
+                int readState = status == null ? READ_STATE_ALL
+                                : status == NotificationStatus.NOT_READ ? READ_STATE_UNREAD : READ_STATE_READ;
+                List<NotificationEvent> events = after == null
+                                ? notificationEventRepository.findProjectFeed(user.getId(), readState,
+                                                ProjectReadWatermark.NEVER_READ, pageable)
+                                : notificationEventRepository.findProjectFeedBefore(user.getId(), readState,
+                                                ProjectReadWatermark.NEVER_READ, after.getTime(), -after.getId(),
+                                                pageable);
+
+                Map<Integer, LocalDateTime> watermarks = new HashMap<>();
+                if (!events.isEmpty()) {
+                        for (ProjectReadWatermark watermark : projectReadWatermarkRepository.findByUserId(user.getId())) {
+                                watermarks.put(watermark.getProjectId(), watermark.getReadUpTo());
+                        }
+                }
+
+                return toPage(user.getId(), direct, events, watermarks, pageSize);
+        }
+
+        // Membro recém-adicionado começa com os eventos antigos do projeto já lidos
+        @Transactional
+        public void resetProjectWatermark(Integer userId, Integer projectId) {
+                projectReadWatermarkRepository.reset(userId, projectId, LocalDateTime.now());
+        }
+
+        // Não consulta o banco enquanto o contador do usuário estiver em memória
+        public NotificationUnreadCountReturnDTO getUnreadCount() {
+                return new NotificationUnreadCountReturnDTO(
+                                unreadNotificationCounter.get(userService.getAuthenticatedUserId()));
+        }
+
+        public NotificationPageReturnDTO getNotificationsNotRead(String cursor, Integer limit) {
+                return getNotificationsByUser(NotificationStatus.NOT_READ, cursor, limit);
+        }
 
+        // Intercala as duas listas já ordenadas por tempo decrescente. Em empate de horário as diretas vêm antes;
+        // como eventos têm id negativo, o cursor (time, id) continua valendo para as duas consultas.
+        private NotificationPageReturnDTO toPage(Integer userId, List<Notification> direct,
+                        List<NotificationEvent> events, Map<Integer, LocalDateTime> watermarks, int pageSize) {
+                List<NotificationReturnDTO> merged = new ArrayList<>(pageSize + 1);
+                int i = 0;
+                int j = 0;
+                while (merged.size() <= pageSize && (i < direct.size() || j < events.size())) {
+                        boolean takeDirect = j >= events.size() || (i < direct.size()
+                                        && !direct.get(i).getTime().isBefore(events.get(j).getCreatedAt()));
+                        merged.add(takeDirect ? toNotificationDTO(direct.get(i++))
+                                        : toProjectEventDTO(events.get(j++), userId, watermarks));
+                }
+
+                boolean hasNext = merged.size() > pageSize;
+                List<NotificationReturnDTO> items = hasNext ? merged.subList(0, pageSize) : merged;
+
+                String nextCursor = null;
+                if (hasNext) {
+                        NotificationReturnDTO last = items.get(items.size() - 1);
+                        nextCursor = new KeysetCursor(last.getTime(), last.getId()).encode();
+                }
+
+                return new NotificationPageReturnDTO(items, nextCursor);
+        }
+
+        private static String toJson(List<String> params) {
+                try {
+                        return PARAMS_MAPPER.writeValueAsString(params);
+                } catch (JsonProcessingException ex) {
+                        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+                                        "Não foi possível serializar os parâmetros da notificação.");
+                }
         }
 
         @Transactional
@@ -163,6 +531,11 @@ public class NotificationService {
 
                 notificationRepository.delete(notification);
 
+                if (notification.getStatus() == NotificationStatus.NOT_READ) {
+                        Integer userId = notification.getUserDestin().getId();
+                        afterCommit(() -> unreadNotificationCounter.decrement(userId, 1));
+                }
+
         }
 
 }
@@ -0,0 +1,111 @@
+package project_management_api.project_management_api.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.transaction.Transactional;
+
+// Manutenção das partições mensais (RANGE por "time") das tabelas particionadas.
+// As partições seguem o padrão <tabela>_pAAAA_MM, o mesmo usado pelas migrations.
+@Component
+public class PartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionMaintenance.class);
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z_]+");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PartitionMaintenance(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Cria as partições do mês atual e dos próximos meses, para nada cair na partição DEFAULT
+    public void ensureMonthlyPartitions(String table, int monthsAhead) {
+        checkTableName(table);
+        YearMonth current = YearMonth.now();
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(table, month)
+                    + " PARTITION OF " + table
+                    + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    // Remove partições inteiras cujo mês terminou antes do corte: é instantâneo, sem DELETE linha a linha
+    @Transactional
+    public int dropPartitionsOlderThan(String table, LocalDate cutoff) {
+        return removePartitionsOlderThan(table, cutoff, null, null);
+    }
+
+    // Como dropPartitionsOlderThan, com duas restrições opcionais:
+    // - keepWhere: partições com alguma linha que satisfaça a condição ficam (ex.: notificações não lidas);
+    // - archiveSql: roda depois do DETACH e antes do DROP, com o nome da partição no lugar de %s, para copiar
+    //   as linhas para outra tabela.
+    // A partição fica travada desde a verificação, então nenhuma linha nova passa a satisfazer keepWhere antes
+    // do DETACH.
+    @Transactional
+    public int removePartitionsOlderThan(String table, LocalDate cutoff, String keepWhere, String archiveSql) {
+        checkTableName(table);
+        Pattern partitionPattern = Pattern.compile(table + "_p(\\d{4})_(\\d{2})");
+
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = ?",
+                String.class, table);
+
+        int removed = 0;
+        for (String partition : partitions) {
+            Matcher matcher = partitionPattern.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                continue;
+            }
+
+            if (keepWhere != null) {
+                jdbcTemplate.execute("LOCK TABLE " + partition + " IN SHARE ROW EXCLUSIVE MODE");
+                Boolean keep = jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE " + keepWhere + ")", Boolean.class);
+                if (Boolean.TRUE.equals(keep)) {
+                    log.info("Partição {} mantida: ainda tem linhas com {}", partition, keepWhere);
+                    continue;
+                }
+            }
+
+            jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+            if (archiveSql != null) {
+                jdbcTemplate.update(String.format(archiveSql, partition));
+            }
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            removed++;
+        }
+        return removed;
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return table + "_p" + month.format(SUFFIX);
+    }
+
+    private static void checkTableName(String table) {
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Nome de tabela inválido: " + table);
+        }
+    }
+}
@@ -12,9 +12,11 @@ import project_management_api.project_management_api.dto.NotificationInputDTOToU
 import project_management_api.project_management_api.dto.ProjectInputDTO;
 import project_management_api.project_management_api.dto.ProjectReturnDTO;
 import project_management_api.project_management_api.dto.ProjectUpdateDTO;
+import project_management_api.project_management_api.enums.NotificationTemplate;
 import project_management_api.project_management_api.enums.ProjectStatus;
 import project_management_api.project_management_api.model.Project;
 import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.ChatReadCursorRepository;
 import project_management_api.project_management_api.repository.ProjectRepository;
 import project_management_api.project_management_api.repository.UserRepository;
 
@@ -25,13 +27,18 @@ public class ProjectService {
         private final UserRepository userRepository;
         private final UserService userService;
         private final NotificationService notificationService;
+        private final ChatReadCursorRepository chatReadCursorRepository;
+        private final ChatMembershipCache chatMembershipCache;
 
         public ProjectService(ProjectRepository projectRepository, UserRepository userRepository,
-                        UserService userService, NotificationService notificationService) {
+                        UserService userService, NotificationService notificationService,
+                        ChatReadCursorRepository chatReadCursorRepository, ChatMembershipCache chatMembershipCache) {
                 this.projectRepository = projectRepository;
                 this.userRepository = userRepository;
                 this.userService = userService;
                 this.notificationService = notificationService;
+                this.chatReadCursorRepository = chatReadCursorRepository;
+                this.chatMembershipCache = chatMembershipCache;
         }
 
         public ProjectReturnDTO toProjectDTO(Project project) {
@@ -100,7 +107,7 @@ public class ProjectService {
 
                 Project projectToSave = projectRepository.save(project);
                 notificationService.sendNotificationToProject(new NotificationInputDTOToProject(
-                                userUpdater.getName() + " atualizou dados do projeto " + project.getName() + ".",
+                                NotificationTemplate.PROJECT_UPDATED, List.of(userUpdater.getName(), project.getName()),
                                 projectId));
                 return toProjectDTO(projectToSave);
 
@@ -120,8 +127,8 @@ public class ProjectService {
                 project.setStatus(status);
                 Project projectToSave = projectRepository.save(project);
                 notificationService.sendNotificationToProject(new NotificationInputDTOToProject(
-                                userUpdater.getName() + " atualizou o status do projeto " + project.getName() + ".",
-                                projectId));
+                                NotificationTemplate.PROJECT_STATUS_UPDATED,
+                                List.of(userUpdater.getName(), project.getName()), projectId));
                 return toProjectDTO(projectToSave);
 
         }
@@ -176,8 +183,12 @@ public class ProjectService {
                 project.getUsers().add(user);
 
                 Project projectToReturn = projectRepository.save(project);
+                notificationService.resetProjectWatermark(idUser, idProject);
+                chatReadCursorRepository.resetToLatest(idUser, idProject);
+                chatMembershipCache.evict(idProject);
                 notificationService.sendNotificationToProject(new NotificationInputDTOToProject(
-                                user.getName() + " foi adicionado ao projeto " + project.getName() + ".", idProject));
+                                NotificationTemplate.PROJECT_MEMBER_ADDED, List.of(user.getName(), project.getName()),
+                                idProject));
                 return toProjectDTO(projectToReturn);
 
         }
@@ -196,8 +207,10 @@ public class ProjectService {
                 project.getUsers().remove(user);
 
                 Project projectToReturn = projectRepository.save(project);
+                chatMembershipCache.evict(idProject);
                 notificationService.sendNotificationToProject(new NotificationInputDTOToProject(
-                                user.getName() + " foi removido do projeto " + project.getName() + ".", idProject));
+                                NotificationTemplate.PROJECT_MEMBER_REMOVED, List.of(user.getName(), project.getName()),
+                                idProject));
                 return toProjectDTO(projectToReturn);
         }
 
@@ -214,6 +227,7 @@ public class ProjectService {
 
                 }
                 projectRepository.delete(project);
+                chatMembershipCache.evict(projectId);
         }
 
 }
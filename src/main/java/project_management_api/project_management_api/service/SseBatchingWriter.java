@@ -0,0 +1,169 @@
+package project_management_api.project_management_api.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+// Escreve o fluxo SSE de uma conexão. Com micro-batching ligado, acumula os eventos por alguns milissegundos
+// (ou até max-events) e manda todos em uma única escrita e um único flush, em vez de um por evento.
+// O formato no fio é o mesmo: cada evento continua sendo um frame SSE com seu próprio id.
+// Os frames já saem formatados daqui, então a resposta é um ResponseBodyEmitter em text/event-stream que só
+// escreve o texto, e não um SseEmitter, que montaria cada evento de novo.
+// Só depois de cada escrita bem-sucedida as notificações do lote são confirmadas no NotificationDeliveryTracker.
+@Component
+public class SseBatchingWriter {
+
+    private static final MediaType TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+    private static final MediaType EVENT_STREAM_UTF8 = new MediaType(MediaType.TEXT_EVENT_STREAM,
+            StandardCharsets.UTF_8);
+
+    private final NotificationDeliveryTracker deliveryTracker;
+    private final boolean enabled;
+    private final int maxEvents;
+    private final Duration maxDelay;
+
+    public SseBatchingWriter(NotificationDeliveryTracker deliveryTracker,
+            @Value("${sse.batching.enabled:false}") boolean enabled,
+            @Value("${sse.batching.max-events:32}") int maxEvents,
+            @Value("${sse.batching.max-delay-ms:10}") long maxDelayMs) {
+        this.deliveryTracker = deliveryTracker;
+        this.enabled = enabled;
+        this.maxEvents = maxEvents;
+        this.maxDelay = Duration.ofMillis(maxDelayMs);
+    }
+
+    public ResponseBodyEmitter stream(Flux<ServerSentEvent<String>> events) {
+        // Sem timeout: a conexão fica aberta até o cliente sair, como no retorno Flux do MVC
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(-1L) {
+            @Override
+            protected void extendResponse(ServerHttpResponse outputMessage) {
+                super.extendResponse(outputMessage);
+                outputMessage.getHeaders().setContentType(EVENT_STREAM_UTF8);
+            }
+        };
+
+        // A escrita no socket sai da thread que notificou: um cliente lento não trava quem fez o fan-out
+        Disposable subscription = batches(events)
+                .publishOn(Schedulers.boundedElastic(), 1)
+                .subscribe(batch -> send(emitter, batch), emitter::completeWithError, emitter::complete);
+
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return emitter;
+    }
+
+    // Cada elemento é o texto de uma escrita: um evento, ou vários quando o micro-batching está ligado
+    public Flux<String> frames(Flux<ServerSentEvent<String>> events) {
+        return batches(events).map(SseBatchingWriter::format);
+    }
+
+    // Para quem escreve os frames por conta própria (SseNettyServer): cada frame leva a confirmação do seu lote,
+    // que só deve ser chamada quando a escrita dele terminar
+    public Flux<Frame> acknowledgeableFrames(Flux<ServerSentEvent<String>> events) {
+        return batches(events).map(batch -> new Frame(format(batch), () -> acknowledge(batch)));
+    }
+
+    private Flux<List<ServerSentEvent<String>>> batches(Flux<ServerSentEvent<String>> events) {
+        if (!enabled) {
+            return events.map(List::of);
+        }
+        return events.bufferTimeout(maxEvents, maxDelay);
+    }
+
+    private void send(ResponseBodyEmitter emitter, List<ServerSentEvent<String>> batch) {
+        try {
+            emitter.send(format(batch), TEXT_UTF8);
+        } catch (IOException ex) {
+            // Cliente desconectado: o completeWithError encerra a assinatura pelo onError
+            emitter.completeWithError(ex);
+            return;
+        }
+
+        acknowledge(batch);
+    }
+
+    private void acknowledge(List<ServerSentEvent<String>> batch) {
+        List<Integer> delivered = new ArrayList<>(batch.size());
+        for (ServerSentEvent<String> event : batch) {
+            Integer notificationId = SseSubscriptionRegistry.notificationIdOf(event);
+            if (notificationId != null) {
+                delivered.add(notificationId);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            deliveryTracker.markDelivered(delivered);
+        }
+    }
+
+    private static String format(List<ServerSentEvent<String>> batch) {
+        StringBuilder text = new StringBuilder(batch.size() * 128);
+        for (ServerSentEvent<String> event : batch) {
+            append(text, event);
+        }
+        return text.toString();
+    }
+
+    private static void append(StringBuilder text, ServerSentEvent<String> event) {
+        if (event.id() != null) {
+            text.append("id:").append(event.id()).append('\n');
+        }
+        if (event.event() != null) {
+            text.append("event:").append(event.event()).append('\n');
+        }
+        if (event.retry() != null) {
+            text.append("retry:").append(event.retry().toMillis()).append('\n');
+        }
+        // O comentário com o id da notificação é só para a confirmação de entrega e não vai para o cliente
+        if (event.comment() != null && SseSubscriptionRegistry.notificationIdOf(event) == null) {
+            appendLines(text, ":", event.comment());
+        }
+        // Quebras de linha no texto viram várias linhas "data:", que o EventSource junta de volta
+        appendLines(text, "data:", event.data() != null ? event.data() : "");
+        text.append('\n');
+    }
+
+    private static void appendLines(StringBuilder text, String prefix, String value) {
+        for (String line : value.split("\r\n|\r|\n", -1)) {
+            text.append(prefix).append(line).append('\n');
+        }
+    }
+
+    public static final class Frame {
+
+        private final String text;
+        private final Runnable onWritten;
+
+        private Frame(String text, Runnable onWritten) {
+            this.text = text;
+            this.onWritten = onWritten;
+        }
+
+        // Frame sem nada a confirmar, como o heartbeat
+        public static Frame of(String text) {
+            return new Frame(text, () -> {
+            });
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public void acknowledge() {
+            onWritten.run();
+        }
+    }
+}
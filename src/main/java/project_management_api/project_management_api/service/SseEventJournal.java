@@ -0,0 +1,370 @@
+package project_management_api.project_management_api.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+// Journal append-only, em arquivos mapeados em memória, dos eventos SSE emitidos. Cada evento recebe um id
+// crescente, que vira o "id:" do SSE; na reconexão o cliente manda o Last-Event-ID e recebe só o que perdeu,
+// lido direto do segmento mapeado, sem consultar o PostgreSQL.
+@Component
+public class SseEventJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(SseEventJournal.class);
+
+    private static final String SUFFIX = ".v2.journal";
+    private static final String LEGACY_SUFFIX = ".journal";
+
+    // Registro: [tamanho][id][timestamp][projectId][qtd destinatários][(destinatário, notificação)...]
+    // [tamanho do texto][texto]. Notificação 0 quando o evento não tem linha em notification.
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int RECIPIENT_SIZE = Integer.BYTES + Integer.BYTES;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final long maxTotalBytes;
+    private final long maxAgeMs;
+    private final int maxReplay;
+
+    private Segment active;
+    private long nextId;
+
+    public SseEventJournal(@Value("${sse.journal.enabled:true}") boolean enabled,
+            @Value("${sse.journal.dir:${java.io.tmpdir}/project-management-api/sse-journal}") String directory,
+            @Value("${sse.journal.segment-size-bytes:67108864}") int segmentSize,
+            @Value("${sse.journal.max-total-bytes:1073741824}") long maxTotalBytes,
+            @Value("${sse.journal.max-age-ms:86400000}") long maxAgeMs,
+            @Value("${sse.journal.max-replay:1000}") int maxReplay) throws IOException {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.maxTotalBytes = maxTotalBytes;
+        this.maxAgeMs = maxAgeMs;
+        this.maxReplay = maxReplay;
+
+        // Sem journal os ids partem do relógio, para continuarem crescentes entre reinícios
+        this.nextId = System.currentTimeMillis();
+        if (enabled) {
+            Files.createDirectories(this.directory);
+            recover();
+        }
+    }
+
+    // Grava o evento e devolve o id que deve ser enviado ao cliente. notificationIds acompanha recipientIds
+    // posição a posição (ou é null), para que o reenvio também confirme a entrega da notificação.
+    public synchronized long append(Integer projectId, List<Integer> recipientIds, List<Integer> notificationIds,
+            String data) {
+        long id = nextId++;
+        if (!enabled) {
+            return id;
+        }
+
+        byte[] payload = data.getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_SIZE + recipientIds.size() * RECIPIENT_SIZE + Integer.BYTES + payload.length;
+        if (length > segmentSize / 2) {
+            log.warn("Evento SSE {} grande demais para o journal ({} bytes); não poderá ser reenviado", id, length);
+            return id;
+        }
+
+        try {
+            if (active.remaining() < length) {
+                active = openSegment(id);
+            }
+        } catch (IOException ex) {
+            log.warn("Não foi possível criar um novo segmento do journal: {}", ex.getMessage());
+            return id;
+        }
+
+        active.write(id, System.currentTimeMillis(), projectId != null ? projectId : 0, recipientIds,
+                notificationIds, payload, length);
+        return id;
+    }
+
+    // Eventos do usuário depois de lastEventId. projectId restringe aos eventos daquele projeto, como na conexão ao vivo.
+    public Replay replay(Integer userId, Integer projectId, long lastEventId) {
+        Replay replay = new Replay();
+        if (!enabled || segments.isEmpty()) {
+            replay.complete = false;
+            return replay;
+        }
+
+        // Last-Event-ID anterior ao segmento mais antigo (ou de antes de o journal ser apagado): houve perda
+        long oldestId = segments.firstKey();
+        if (lastEventId + 1 < oldestId || lastEventId >= currentNextId()) {
+            replay.complete = false;
+        }
+
+        Long startKey = segments.floorKey(lastEventId + 1);
+        Map<Long, Segment> candidates = startKey != null ? segments.tailMap(startKey, true) : segments;
+
+        for (Segment segment : candidates.values()) {
+            if (!segment.collect(userId, projectId, lastEventId, replay, maxReplay)) {
+                replay.complete = false;
+                break;
+            }
+        }
+        return replay;
+    }
+
+    // Descarta segmentos antigos por idade e por tamanho total, sempre preservando o segmento ativo
+    @Scheduled(fixedDelayString = "${sse.journal.reclaim-interval-ms:60000}")
+    public synchronized void reclaim() {
+        if (!enabled) {
+            return;
+        }
+
+        long cutoff = System.currentTimeMillis() - maxAgeMs;
+        long totalBytes = (long) segments.size() * segmentSize;
+
+        Iterator<Map.Entry<Long, Segment>> iterator = segments.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Segment segment = iterator.next().getValue();
+            if (segment == active) {
+                break;
+            }
+
+            // Todos os eventos de um segmento são mais antigos que o primeiro evento do segmento seguinte
+            Map.Entry<Long, Segment> next = segments.higherEntry(segment.baseId);
+            boolean expired = next != null && next.getValue().firstTimestamp() < cutoff;
+            if (!expired && totalBytes <= maxTotalBytes) {
+                break;
+            }
+
+            iterator.remove();
+            totalBytes -= segmentSize;
+            try {
+                Files.deleteIfExists(segment.path);
+            } catch (IOException ex) {
+                log.warn("Não foi possível remover o segmento {}: {}", segment.path, ex.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void flush() {
+        if (active != null) {
+            active.buffer.force();
+        }
+    }
+
+    private synchronized long currentNextId() {
+        return nextId;
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        List<Path> legacy;
+        try (Stream<Path> listing = Files.list(directory)) {
+            List<Path> all = listing.filter(file -> file.getFileName().toString().endsWith(LEGACY_SUFFIX)).toList();
+            files = all.stream().filter(file -> file.getFileName().toString().endsWith(SUFFIX)).toList();
+            legacy = all.stream().filter(file -> !file.getFileName().toString().endsWith(SUFFIX)).toList();
+        }
+
+        // Segmentos do formato anterior, sem ids de notificação, não são reaproveitados
+        for (Path file : legacy) {
+            Files.deleteIfExists(file);
+        }
+
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long baseId = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            segments.put(baseId, Segment.map(file, baseId, (int) Files.size(file)));
+        }
+
+        if (segments.isEmpty()) {
+            active = openSegment(nextId);
+            return;
+        }
+
+        active = segments.lastEntry().getValue();
+        nextId = Math.max(nextId, active.lastId >= 0 ? active.lastId + 1 : active.baseId);
+    }
+
+    private Segment openSegment(long baseId) throws IOException {
+        Path file = directory.resolve(String.format("%020d%s", baseId, SUFFIX));
+        Segment segment = Segment.map(file, baseId, segmentSize);
+        segments.put(baseId, segment);
+        return segment;
+    }
+
+    public static final class Replay {
+
+        private final List<Entry> entries = new ArrayList<>();
+        private boolean complete = true;
+
+        public List<Entry> getEntries() {
+            return entries;
+        }
+
+        // false quando parte dos eventos perdidos já saiu do journal e o cliente precisa recarregar a lista
+        public boolean isComplete() {
+            return complete;
+        }
+    }
+
+    public static final class Entry {
+
+        private final long id;
+        private final Integer notificationId;
+        private final String data;
+
+        private Entry(long id, Integer notificationId, String data) {
+            this.id = id;
+            this.notificationId = notificationId;
+            this.data = data;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        // Notificação do usuário que pediu o reenvio, ou null quando o evento não tem linha própria
+        public Integer getNotificationId() {
+            return notificationId;
+        }
+
+        public String getData() {
+            return data;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long baseId;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        // Leitores só enxergam até writePosition, publicado depois que o registro inteiro foi escrito
+        private volatile int writePosition;
+        private long lastId = -1;
+
+        private Segment(Path path, long baseId, MappedByteBuffer buffer, int capacity) {
+            this.path = path;
+            this.baseId = baseId;
+            this.buffer = buffer;
+            this.capacity = capacity;
+        }
+
+        private static Segment map(Path path, long baseId, int capacity) throws IOException {
+            // O mapeamento continua válido depois que o canal é fechado
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                Segment segment = new Segment(path, baseId, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity),
+                        capacity);
+                segment.scanToEnd();
+                return segment;
+            }
+        }
+
+        private void scanToEnd() {
+            int position = 0;
+            while (position + Integer.BYTES <= capacity) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + length > capacity) {
+                    break;
+                }
+                lastId = buffer.getLong(position + Integer.BYTES);
+                position += length;
+            }
+            writePosition = position;
+        }
+
+        private int remaining() {
+            // Reserva espaço para o marcador de fim (tamanho zero)
+            return capacity - writePosition - Integer.BYTES;
+        }
+
+        private long firstTimestamp() {
+            return writePosition > 0 ? buffer.getLong(Integer.BYTES + Long.BYTES) : Long.MAX_VALUE;
+        }
+
+        private void write(long id, long timestamp, int projectId, List<Integer> recipientIds,
+                List<Integer> notificationIds, byte[] payload, int length) {
+            int start = writePosition;
+            int position = start + Integer.BYTES;
+
+            buffer.putLong(position, id);
+            position += Long.BYTES;
+            buffer.putLong(position, timestamp);
+            position += Long.BYTES;
+            buffer.putInt(position, projectId);
+            position += Integer.BYTES;
+            buffer.putInt(position, recipientIds.size());
+            position += Integer.BYTES;
+            for (int i = 0; i < recipientIds.size(); i++) {
+                Integer notificationId = notificationIds != null ? notificationIds.get(i) : null;
+                buffer.putInt(position, recipientIds.get(i));
+                buffer.putInt(position + Integer.BYTES, notificationId != null ? notificationId : 0);
+                position += RECIPIENT_SIZE;
+            }
+            buffer.putInt(position, payload.length);
+            position += Integer.BYTES;
+            buffer.put(position, payload);
+
+            // O tamanho é gravado por último: um registro incompleto após uma queda é ignorado na recuperação
+            buffer.putInt(start, length);
+            lastId = id;
+            writePosition = start + length;
+        }
+
+        // Retorna false quando o limite de reenvio foi atingido
+        private boolean collect(Integer userId, Integer projectFilter, long afterId, Replay replay, int maxReplay) {
+            int end = writePosition;
+            int position = 0;
+
+            while (position < end) {
+                int length = buffer.getInt(position);
+                long id = buffer.getLong(position + Integer.BYTES);
+                int cursor = position + HEADER_SIZE;
+
+                if (id > afterId) {
+                    int projectId = buffer.getInt(position + Integer.BYTES + Long.BYTES + Long.BYTES);
+                    int recipients = buffer.getInt(position + HEADER_SIZE - Integer.BYTES);
+
+                    boolean addressed = false;
+                    int notificationId = 0;
+                    for (int i = 0; i < recipients && !addressed; i++) {
+                        addressed = buffer.getInt(cursor + i * RECIPIENT_SIZE) == userId;
+                        if (addressed) {
+                            notificationId = buffer.getInt(cursor + i * RECIPIENT_SIZE + Integer.BYTES);
+                        }
+                    }
+                    cursor += recipients * RECIPIENT_SIZE;
+
+                    if (addressed && (projectFilter == null || projectFilter == projectId)) {
+                        if (replay.entries.size() >= maxReplay) {
+                            return false;
+                        }
+                        byte[] payload = new byte[buffer.getInt(cursor)];
+                        buffer.get(cursor + Integer.BYTES, payload);
+                        replay.entries.add(new Entry(id, notificationId != 0 ? notificationId : null,
+                                new String(payload, StandardCharsets.UTF_8)));
+                    }
+                }
+                position += length;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package project_management_api.project_management_api.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+
+// Caminho SSE dedicado para muitas conexões simultâneas, em um servidor Reactor Netty separado do Tomcat:
+// cada conexão é só um canal no event loop, sem thread nem AsyncContext do servlet.
+// - heartbeat: um único Flux.interval compartilhado por todas as conexões, em vez de um timer por conexão;
+// - memória: por conexão ficam o canal Netty, o Subscriber do registro (fila encadeada, vazia quando ociosa)
+//   e a assinatura Reactor; nenhum buffer é reservado de antemão;
+// - conexões mortas: um WriteTimeoutHandler fecha o canal quando uma escrita (inclusive o heartbeat)
+//   não termina no prazo, o que libera o Subscriber no registro.
+// Os eventos são os mesmos do /sse/notifications do MVC (mesmo registro, journal e confirmação de entrega).
+@Component
+public class SseNettyServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(SseNettyServer.class);
+
+    private static final String PATH = "/sse/notifications";
+    private static final SseBatchingWriter.Frame HEARTBEAT = SseBatchingWriter.Frame.of(":\n\n");
+
+    private final SseSubscriptionRegistry sseSubscriptionRegistry;
+    private final SseBatchingWriter sseBatchingWriter;
+    private final JwtService jwtService;
+    private final UserService userService;
+    private final boolean enabled;
+    private final int port;
+    private final Duration heartbeatInterval;
+    private final int writeTimeoutSeconds;
+    private final int maxConnections;
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    private LoopResources loops;
+    private DisposableServer server;
+    private Flux<SseBatchingWriter.Frame> heartbeat;
+
+    public SseNettyServer(SseSubscriptionRegistry sseSubscriptionRegistry, SseBatchingWriter sseBatchingWriter,
+            JwtService jwtService, UserService userService, MeterRegistry meterRegistry,
+            @Value("${sse.server.enabled:false}") boolean enabled,
+            @Value("${sse.server.port:8081}") int port,
+            @Value("${sse.server.heartbeat-interval-ms:30000}") long heartbeatIntervalMs,
+            @Value("${sse.server.write-timeout-seconds:60}") int writeTimeoutSeconds,
+            @Value("${sse.server.max-connections:200000}") int maxConnections) {
+        this.sseSubscriptionRegistry = sseSubscriptionRegistry;
+        this.sseBatchingWriter = sseBatchingWriter;
+        this.jwtService = jwtService;
+        this.userService = userService;
+        this.enabled = enabled;
+        this.port = port;
+        this.heartbeatInterval = Duration.ofMillis(heartbeatIntervalMs);
+        this.writeTimeoutSeconds = writeTimeoutSeconds;
+        this.maxConnections = maxConnections;
+
+        Gauge.builder("sse.server.connections", openConnections, AtomicInteger::get)
+                .description("Conexões abertas no servidor SSE dedicado")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || server != null) {
+            return;
+        }
+
+        // Um timer para todas as conexões; quem não consegue receber perde o tick, sem segurar os demais
+        heartbeat = Flux.interval(heartbeatInterval, Schedulers.parallel()).map(tick -> HEARTBEAT).share();
+
+        loops = LoopResources.create("sse-netty");
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loops)
+                .route(routes -> routes.get(PATH, this::stream))
+                .bindNow();
+        log.info("Servidor SSE dedicado ouvindo na porta {}", server.port());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server != null) {
+            server.disposeNow();
+            loops.dispose();
+            server = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    public int getPort() {
+        return server != null ? server.port() : port;
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    private Mono<Void> stream(HttpServerRequest request, HttpServerResponse response) {
+        String token = token(request);
+        if (token == null) {
+            return response.status(HttpResponseStatus.UNAUTHORIZED).send();
+        }
+
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        Integer projectId;
+        Long lastEventId;
+        try {
+            projectId = query.parameters().containsKey("projectId")
+                    ? Integer.valueOf(query.parameters().get("projectId").get(0))
+                    : null;
+            String lastEventHeader = request.requestHeaders().get("Last-Event-ID");
+            lastEventId = lastEventHeader != null ? Long.valueOf(lastEventHeader) : null;
+        } catch (NumberFormatException ex) {
+            return response.status(HttpResponseStatus.BAD_REQUEST).send();
+        }
+
+        // A validação do token e a busca do id podem ir ao banco: ficam fora do event loop
+        return Mono.fromCallable(() -> Optional.of(userService.getUserIdByEmail(jwtService.extractUsername(token))))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorReturn(Optional.empty())
+                .flatMap(userId -> userId.isPresent()
+                        ? serve(request, response, userId.get(), projectId, lastEventId)
+                        : response.status(HttpResponseStatus.UNAUTHORIZED).send());
+    }
+
+    private Mono<Void> serve(HttpServerRequest request, HttpServerResponse response, Integer userId,
+            Integer projectId, Long lastEventId) {
+        if (openConnections.incrementAndGet() > maxConnections) {
+            openConnections.decrementAndGet();
+            return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send();
+        }
+
+        request.withConnection(connection -> connection
+                .addHandlerLast(new WriteTimeoutHandler(writeTimeoutSeconds, TimeUnit.SECONDS))
+                .onDispose(openConnections::decrementAndGet));
+
+        Flux<SseBatchingWriter.Frame> frames = Flux.merge(
+                sseBatchingWriter.acknowledgeableFrames(sseSubscriptionRegistry.subscribe(userId, projectId,
+                        lastEventId)),
+                heartbeat.onBackpressureDrop());
+
+        // Um frame por escrita, em ordem; a entrega só é confirmada quando a escrita do frame termina no canal.
+        // Os headers saem antes, para a resposta ficar em chunked e não virar uma resposta completa no 1º frame.
+        return response
+                .header(HttpHeaderNames.CONTENT_TYPE, "text/event-stream;charset=UTF-8")
+                .header(HttpHeaderNames.CACHE_CONTROL, "no-cache")
+                .sendHeaders()
+                .then()
+                .thenMany(frames.concatMap(frame -> response.sendString(Mono.just(frame.getText())).then()
+                        .doOnSuccess(written -> frame.acknowledge())))
+                .then();
+    }
+
+    // EventSource do navegador não envia headers próprios; por isso o token também é aceito em ?access_token=
+    private static String token(HttpServerRequest request) {
+        String header = request.requestHeaders().get(HttpHeaderNames.AUTHORIZATION);
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring(7);
+        }
+        QueryStringDecoder query = new QueryStringDecoder(request.uri());
+        return query.parameters().containsKey("access_token") ? query.parameters().get("access_token").get(0)
+                : null;
+    }
+}
@@ -0,0 +1,189 @@
+package project_management_api.project_management_api.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+// Registro de conexões SSE indexado por usuário. Cada conexão tem seu próprio buffer limitado,
+// então o custo de uma notificação é proporcional aos destinatários, e não às conexões abertas.
+// Todo evento passa antes pelo SseEventJournal, que fornece o id usado no reenvio após reconexão.
+// A gravação no journal e a emissão acontecem sob o mesmo lock, então cada conexão recebe os eventos na ordem
+// dos ids: um cliente que reconecta com o Last-Event-ID de um evento nunca deixou de receber um id menor.
+@Component
+public class SseSubscriptionRegistry {
+
+    // O id da notificação viaja no comentário do evento só até o SseBatchingWriter, que confirma a entrega
+    // depois da escrita; o comentário não é enviado ao cliente.
+    private static final String NOTIFICATION_COMMENT = "notification:";
+
+    private final ConcurrentHashMap<Integer, Set<Subscriber>> subscribersByUser = new ConcurrentHashMap<>();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    // A emissão só tenta colocar no buffer da conexão (tryEmitNext), então o trecho sob o lock é curto
+    private final Object sendLock = new Object();
+    private final SseEventJournal journal;
+    private final int bufferSize;
+
+    public SseSubscriptionRegistry(SseEventJournal journal,
+            @Value("${sse.subscriber.buffer-size:256}") int bufferSize) {
+        this.journal = journal;
+        this.bufferSize = bufferSize;
+    }
+
+    // projectId opcional: quando informado, a conexão recebe apenas os eventos daquele projeto.
+    // lastEventId opcional: vem do header Last-Event-ID e faz o reenvio do que foi perdido enquanto desconectado.
+    public Flux<ServerSentEvent<String>> subscribe(Integer userId, Integer projectId, Long lastEventId) {
+        // Fila encadeada: o limite é o mesmo, mas uma conexão ociosa não reserva as posições de antemão
+        Subscriber subscriber = new Subscriber(userId, projectId,
+                Sinks.many().unicast().onBackpressureBuffer(new LinkedBlockingQueue<>(bufferSize)));
+
+        // Registra antes de ler o journal: o que chegar durante o reenvio fica no buffer e não se perde
+        subscribersByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        Flux<ServerSentEvent<String>> live = subscriber.sink.asFlux().doFinally(signal -> unregister(subscriber));
+
+        if (lastEventId == null) {
+            return live;
+        }
+
+        SseEventJournal.Replay replay = journal.replay(userId, projectId, lastEventId);
+        List<ServerSentEvent<String>> missed = new ArrayList<>();
+        if (!replay.isComplete()) {
+            missed.add(ServerSentEvent.<String>builder()
+                    .event("resync")
+                    .data("Parte das notificações perdidas não está mais disponível; recarregue a lista")
+                    .build());
+        }
+
+        long lastReplayedId = lastEventId;
+        for (SseEventJournal.Entry entry : replay.getEntries()) {
+            missed.add(event(entry.getId(), entry.getData(), entry.getNotificationId()));
+            lastReplayedId = entry.getId();
+        }
+
+        // Eventos ao vivo que também vieram no reenvio são descartados
+        long replayedUpTo = lastReplayedId;
+        return Flux.concat(Flux.fromIterable(missed), live.filter(event -> Long.parseLong(event.id()) > replayedUpTo));
+    }
+
+    public void sendToUser(Integer userId, String data) {
+        sendToUser(userId, null, data);
+    }
+
+    // Notificação direta: vai para as conexões do usuário que não estão restritas a um projeto
+    public void sendToUser(Integer userId, Integer notificationId, String data) {
+        List<Integer> notificationIds = notificationId != null ? List.of(notificationId) : null;
+        synchronized (sendLock) {
+            long id = journal.append(null, List.of(userId), notificationIds, data);
+            ServerSentEvent<String> event = event(id, data, notificationId);
+
+            Set<Subscriber> subscribers = subscribersByUser.get(userId);
+            if (subscribers == null) {
+                return;
+            }
+
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.projectId == null) {
+                    emit(subscriber, event);
+                }
+            }
+        }
+    }
+
+    public void sendToProject(Integer projectId, List<Integer> memberIds, String data) {
+        sendToProject(projectId, memberIds, null, data);
+    }
+
+    // Notificação de projeto: percorre apenas os membros, nunca todas as conexões abertas.
+    // notificationIds acompanha memberIds posição a posição; null quando não há linha por membro.
+    public void sendToProject(Integer projectId, List<Integer> memberIds, List<Integer> notificationIds,
+            String data) {
+        synchronized (sendLock) {
+            long id = journal.append(projectId, memberIds, notificationIds, data);
+            ServerSentEvent<String> shared = notificationIds == null ? event(id, data, null) : null;
+
+            for (int i = 0; i < memberIds.size(); i++) {
+                Set<Subscriber> subscribers = subscribersByUser.get(memberIds.get(i));
+                if (subscribers == null) {
+                    continue;
+                }
+
+                ServerSentEvent<String> event = shared != null ? shared : event(id, data, notificationIds.get(i));
+
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.projectId == null || subscriber.projectId.equals(projectId)) {
+                        emit(subscriber, event);
+                    }
+                }
+            }
+        }
+    }
+
+    public int getConnectedUsers() {
+        return subscribersByUser.size();
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    // Nunca lança exceção: um cliente lento ou desconectado não pode derrubar a transação de quem notifica
+    private void emit(Subscriber subscriber, ServerSentEvent<String> event) {
+        Sinks.EmitResult result;
+        synchronized (subscriber) {
+            result = subscriber.sink.tryEmitNext(event);
+        }
+
+        // FAIL_ZERO_SUBSCRIBER: o buffer encheu antes de o cliente começar a consumir
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW || result == Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            droppedEvents.incrementAndGet();
+        } else if (result == Sinks.EmitResult.FAIL_CANCELLED || result == Sinks.EmitResult.FAIL_TERMINATED) {
+            unregister(subscriber);
+        }
+    }
+
+    // Notificação carregada pelo evento, ou null quando não há entrega a confirmar
+    public static Integer notificationIdOf(ServerSentEvent<?> event) {
+        String comment = event.comment();
+        if (comment == null || !comment.startsWith(NOTIFICATION_COMMENT)) {
+            return null;
+        }
+        return Integer.valueOf(comment.substring(NOTIFICATION_COMMENT.length()));
+    }
+
+    private static ServerSentEvent<String> event(long id, String data, Integer notificationId) {
+        ServerSentEvent.Builder<String> builder = ServerSentEvent.builder(data).id(String.valueOf(id));
+        if (notificationId != null) {
+            builder.comment(NOTIFICATION_COMMENT + notificationId);
+        }
+        return builder.build();
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscribersByUser.computeIfPresent(subscriber.userId, (id, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private static final class Subscriber {
+
+        private final Integer userId;
+        private final Integer projectId;
+        private final Sinks.Many<ServerSentEvent<String>> sink;
+
+        private Subscriber(Integer userId, Integer projectId, Sinks.Many<ServerSentEvent<String>> sink) {
+            this.userId = userId;
+            this.projectId = projectId;
+            this.sink = sink;
+        }
+    }
+}
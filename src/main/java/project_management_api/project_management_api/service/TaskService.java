@@ -12,6 +12,7 @@ import project_management_api.project_management_api.dto.NotificationInputDTOToU
 import project_management_api.project_management_api.dto.TaskInputDTO;
 import project_management_api.project_management_api.dto.TaskReturnDTO;
 import project_management_api.project_management_api.dto.TaskUpdateDTO;
+import project_management_api.project_management_api.enums.NotificationTemplate;
 import project_management_api.project_management_api.enums.TaskStatus;
 import project_management_api.project_management_api.model.Project;
 import project_management_api.project_management_api.model.Task;
@@ -55,6 +56,10 @@ public class TaskService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Task não encontrada"));
     }
 
+    private static Integer taskOwnerId(Task task) {
+        return task.getTaskOwner() != null ? task.getTaskOwner().getId() : null;
+    }
+
     //
     @Transactional
     public TaskReturnDTO createTask(TaskInputDTO taskDto, Integer projectId) {
@@ -82,8 +87,8 @@ public class TaskService {
 
         // 1. Notificação para TODOS os membros do projeto (Visibilidade)
         notificationService.sendNotificationToProject(new NotificationInputDTOToProject(
-                "Nova Task criada: '" + task.getTitle() + "' no projeto " + project.getName(),
-                projectId));
+                NotificationTemplate.TASK_CREATED, List.of(task.getTitle(), project.getName()), projectId, null,
+                taskOwnerId(task)));
 
         // 2. Notificação Específica para o Responsável (Responsabilidade)
         if (task.getTaskOwner() != null) {
@@ -129,8 +134,8 @@ public class TaskService {
 
         taskRepository.save(task);
         notificationService.sendNotificationToProject(new NotificationInputDTOToProject(
-                "Task '" + task.getTitle() + "' foi atualizada no projeto " + task.getProjectOwner().getName(),
-                task.getProjectOwner().getId()));
+                NotificationTemplate.TASK_UPDATED, List.of(task.getTitle(), task.getProjectOwner().getName()),
+                task.getProjectOwner().getId(), task.getId(), taskOwnerId(task)));
 
         return toTaskDTO(task);
 
@@ -154,8 +159,8 @@ public class TaskService {
         task.setStatus(status);
         taskRepository.save(task);
         notificationService.sendNotificationToProject(new NotificationInputDTOToProject(
-                "Status da task '" + task.getTitle() + "' foi atualizado para " + status.toString(),
-                task.getProjectOwner().getId()));
+                NotificationTemplate.TASK_STATUS_CHANGED, List.of(task.getTitle(), status.toString()),
+                task.getProjectOwner().getId(), task.getId(), taskOwnerId(task)));
         return toTaskDTO(task);
 
     }
@@ -226,8 +231,8 @@ public class TaskService {
         Project project = task.getProjectOwner();
 
         notificationService.sendNotificationToProject(new NotificationInputDTOToProject(
-                "Task '" + task.getTitle() + "' foi permanentemente excluída do projeto " + project.getName(),
-                project.getId()));
+                NotificationTemplate.TASK_DELETED, List.of(task.getTitle(), project.getName()), project.getId(), null,
+                taskOwnerId(task)));
 
         taskRepository.delete(task);
     }
@@ -0,0 +1,123 @@
+package project_management_api.project_management_api.service;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import project_management_api.project_management_api.enums.NotificationStatus;
+import project_management_api.project_management_api.model.ProjectReadWatermark;
+import project_management_api.project_management_api.repository.NotificationEventRepository;
+import project_management_api.project_management_api.repository.NotificationRepository;
+
+// Contador em memória de notificações não lidas por usuário, usado pelo badge do front.
+// É carregado do banco (COUNT) na primeira consulta e mantido pelo NotificationService depois disso.
+// O COUNT roda fora do mapa: se alguma mudança do usuário chega enquanto ele roda, não dá para saber se ela já
+// entrou na contagem, então o valor é devolvido sem ficar em cache. Cada valor vale por ttl-ms e depois é
+// recarregado, o que corrige divergências que sobrarem nos dois sentidos (inclusive as de outras instâncias).
+@Component
+public class UnreadNotificationCounter {
+
+    private final ConcurrentHashMap<Integer, Counter> counters = new ConcurrentHashMap<>();
+    // Carregamentos em curso, por usuário
+    private final ConcurrentHashMap<Integer, Load> loads = new ConcurrentHashMap<>();
+    private final NotificationRepository notificationRepository;
+    private final NotificationEventRepository notificationEventRepository;
+    private final long ttlNanos;
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+            NotificationEventRepository notificationEventRepository,
+            @Value("${notification.unread-counter.ttl-ms:60000}") long ttlMs) {
+        this.notificationRepository = notificationRepository;
+        this.notificationEventRepository = notificationEventRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    public long get(Integer userId) {
+        long now = System.nanoTime();
+        Counter counter = counters.get(userId);
+        if (counter != null && now - counter.loadedAt < ttlNanos) {
+            return counter.value.get();
+        }
+
+        Load load = new Load();
+        if (loads.putIfAbsent(userId, load) != null) {
+            // Outra thread já está carregando este usuário; responde com o banco sem mexer no cache
+            return count(userId);
+        }
+        try {
+            long value = count(userId);
+            // Mesma chave do add(): ou a mudança marcou o carregamento antes, ou é aplicada sobre o valor novo
+            counters.compute(userId, (id, current) -> load.changed ? null : new Counter(value, now));
+            return value;
+        } finally {
+            loads.remove(userId, load);
+        }
+    }
+
+    public void increment(Integer userId) {
+        add(userId, 1);
+    }
+
+    public void increment(Collection<Integer> userIds) {
+        for (Integer userId : userIds) {
+            add(userId, 1);
+        }
+    }
+
+    public void decrement(Integer userId, long amount) {
+        add(userId, -amount);
+    }
+
+    public void invalidate(Integer userId) {
+        counters.compute(userId, (id, counter) -> {
+            markLoadChanged(id);
+            return null;
+        });
+    }
+
+    // Usuários que ainda não consultaram o badge não têm contador: o próximo get() lê o valor do banco
+    private void add(Integer userId, long delta) {
+        counters.compute(userId, (id, counter) -> {
+            markLoadChanged(id);
+            if (counter == null) {
+                return null;
+            }
+            // Valor negativo indica divergência com o banco; descarta para recarregar no próximo get()
+            return counter.value.addAndGet(delta) < 0 ? null : counter;
+        });
+    }
+
+    private void markLoadChanged(Integer userId) {
+        Load load = loads.get(userId);
+        if (load != null) {
+            load.changed = true;
+        }
+    }
+
+    // Soma as notificações diretas e os eventos de projeto (FAN_OUT_ON_READ) depois da marca de leitura
+    private long count(Integer userId) {
+        return notificationRepository.countByUserDestin_IdAndStatus(userId, NotificationStatus.NOT_READ)
+                + notificationEventRepository.countUnreadProjectEvents(userId, ProjectReadWatermark.NEVER_READ);
+    }
+
+    private static final class Counter {
+
+        private final AtomicLong value;
+        private final long loadedAt;
+
+        private Counter(long value, long loadedAt) {
+            this.value = new AtomicLong(value);
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class Load {
+
+        // Escrito e lido dentro do compute() da mesma chave
+        private boolean changed;
+    }
+}
@@ -1,8 +1,13 @@
 package project_management_api.project_management_api.service;
 
+import static project_management_api.project_management_api.service.TransactionCallbacks.afterCommit;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -31,15 +36,24 @@ public class UserService {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwt;
     private final NotificationService notificationService;
+    // email -> id. Mudanças feitas nesta instância removem a entrada depois do commit; as de outras instâncias
+    // (usuário apagado, email trocado) passam a valer quando a entrada expira (user.id-cache.ttl-ms)
+    private final ConcurrentHashMap<String, CachedUserId> userIdsByEmail = new ConcurrentHashMap<>();
+    private final long idCacheTtlNanos;
+    private final int idCacheMaxSize;
 
     public UserService(UserRepository userRepository, PasswordEncoder bcrypt,
             AuthenticationManager authenticationManager, JwtService jwt,
-            @Lazy NotificationService notificationService) {
+            @Lazy NotificationService notificationService,
+            @Value("${user.id-cache.ttl-ms:60000}") long idCacheTtlMs,
+            @Value("${user.id-cache.max-size:10000}") int idCacheMaxSize) {
         this.userRepository = userRepository;
         this.bcrypt = bcrypt;
         this.authenticationManager = authenticationManager;
         this.jwt = jwt;
         this.notificationService = notificationService;
+        this.idCacheTtlNanos = TimeUnit.MILLISECONDS.toNanos(idCacheTtlMs);
+        this.idCacheMaxSize = idCacheMaxSize;
     }
 
     public UserReturnDTO toUserDTO(User user) {
@@ -55,6 +69,48 @@ public class UserService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado."));
     }
 
+    // Resolve apenas o id do usuário autenticado, sem consultar o banco depois da primeira vez
+    public Integer getAuthenticatedUserId() {
+        return getUserIdByEmail(SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
+    // Mesmo cache, para quem autentica o token fora da cadeia de filtros do Spring Security (SseNettyServer)
+    public Integer getUserIdByEmail(String email) {
+        long now = System.nanoTime();
+        CachedUserId cached = userIdsByEmail.get(email);
+        if (cached != null && now - cached.loadedAt < idCacheTtlNanos) {
+            return cached.userId;
+        }
+
+        if (userIdsByEmail.size() >= idCacheMaxSize) {
+            userIdsByEmail.values().removeIf(entry -> now - entry.loadedAt >= idCacheTtlNanos);
+            if (userIdsByEmail.size() >= idCacheMaxSize) {
+                // Cache cheio de entradas válidas: responde com o banco sem guardar
+                return findUserIdByEmail(email);
+            }
+        }
+
+        // A consulta roda dentro do compute(): um evictUserId() da mesma chave espera por ela e remove o resultado
+        return userIdsByEmail.compute(email, (key, current) -> {
+            if (current != null && now - current.loadedAt < idCacheTtlNanos) {
+                return current;
+            }
+            return new CachedUserId(findUserIdByEmail(key), now);
+        }).userId;
+    }
+
+    private Integer findUserIdByEmail(String email) {
+        return userRepository.findByEmail(email)
+                .map(User::getId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED,
+                        "Usuário não autenticado no contexto."));
+    }
+
+    // Depois do commit: antes dele, uma consulta concorrente ainda leria o id antigo e o colocaria de volta
+    private void evictUserId(String email) {
+        afterCommit(() -> userIdsByEmail.remove(email));
+    }
+
     public User getAuthenticatedUser() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         return userRepository.findByEmail(email)
@@ -116,6 +172,7 @@ public class UserService {
         }
 
         if (userDTO.getEmail() != null) {
+            evictUserId(user.getEmail());
             user.setEmail(userDTO.getEmail());
         }
         if (userDTO.getName() != null) {
@@ -189,6 +246,7 @@ public class UserService {
 
         User userLogged = getAuthenticatedUser();
 
+        evictUserId(userLogged.getEmail());
         userRepository.delete(userLogged);
     }
 
@@ -196,7 +254,18 @@ public class UserService {
     public void deleteUser(Integer userToDeleteId) {
         User user = findUserByIdOrThrow(userToDeleteId);
 
+        evictUserId(user.getEmail());
         userRepository.delete(user);
     }
 
+    private static final class CachedUserId {
+
+        private final Integer userId;
+        private final long loadedAt;
+
+        private CachedUserId(Integer userId, long loadedAt) {
+            this.userId = userId;
+            this.loadedAt = loadedAt;
+        }
+    }
 }
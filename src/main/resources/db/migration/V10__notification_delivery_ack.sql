@@ -0,0 +1,9 @@
+-- Confirmação de entrega: preenchida em lote quando o SSE escreve a notificação no cliente
+ALTER TABLE notification ADD COLUMN delivered_at TIMESTAMP(6);
+
+-- Notificações não lidas anteriores a esta versão já chegaram aos clientes pela listagem completa
+UPDATE notification SET delivered_at = time WHERE status = 'NOT_READ';
+
+-- Atende /me/undelivered: só as linhas pendentes entram no índice
+CREATE INDEX idx_notification_undelivered
+    ON notification (user_destin_id, id) WHERE delivered_at IS NULL AND status = 'NOT_READ';
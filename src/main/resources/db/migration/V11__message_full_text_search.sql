@@ -0,0 +1,6 @@
+-- Busca textual das mensagens do chat: tsvector gerado pelo próprio PostgreSQL com o dicionário
+-- portuguese (stemming e stopwords), indexado por GIN
+ALTER TABLE message ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (to_tsvector('portuguese', text)) STORED;
+
+CREATE INDEX idx_message_search_vector ON message USING GIN (search_vector);
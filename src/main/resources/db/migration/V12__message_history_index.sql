@@ -0,0 +1,5 @@
+-- Histórico do chat paginado por (time, id) decrescente dentro do projeto.
+-- CONCURRENTLY evita bloquear o envio de mensagens durante a criação.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_message_project_time
+    ON message (project_id, time DESC, id DESC);
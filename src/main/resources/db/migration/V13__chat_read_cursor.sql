@@ -0,0 +1,21 @@
+-- Leitura do chat por usuário e projeto: um cursor (última mensagem lida) no lugar do status global
+-- de cada mensagem. Não lidas são as mensagens do projeto depois do cursor, pelo índice da V12.
+
+CREATE TABLE chat_read_cursor (
+    user_id INTEGER NOT NULL REFERENCES users_tb (id) ON DELETE CASCADE,
+    project_id INTEGER NOT NULL REFERENCES project (id) ON DELETE CASCADE,
+    last_read_message_id INTEGER NOT NULL,
+    last_read_time TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id, project_id)
+);
+
+-- Membros atuais começam com o histórico existente lido, em vez de todo o chat como não lido
+INSERT INTO chat_read_cursor (user_id, project_id, last_read_message_id, last_read_time)
+SELECT up.user_id, up.project_id, latest.id, latest.time
+FROM user_project up
+JOIN LATERAL (
+    SELECT m.id, m.time FROM message m
+    WHERE m.project_id = up.project_id
+    ORDER BY m.time DESC, m.id DESC
+    LIMIT 1
+) latest ON TRUE;
@@ -0,0 +1,44 @@
+-- Particiona message por mês (RANGE em "time"), como a notification na V4: o histórico recente só lê as
+-- partições mais novas e a retenção descarta partições inteiras. A chave primária precisa conter "time".
+
+ALTER TABLE message RENAME TO message_legacy;
+ALTER TABLE message_legacy RENAME CONSTRAINT message_pkey TO message_legacy_pkey;
+DROP INDEX IF EXISTS idx_message_project_time;
+DROP INDEX IF EXISTS idx_message_search_vector;
+
+CREATE TABLE message (
+    id INTEGER NOT NULL,
+    text VARCHAR(255) NOT NULL,
+    time TIMESTAMP(6) NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('READ', 'NOT_READ')),
+    project_id INTEGER NOT NULL REFERENCES project (id),
+    user_id INTEGER NOT NULL REFERENCES users_tb (id),
+    search_vector tsvector GENERATED ALWAYS AS (to_tsvector('portuguese', text)) STORED,
+    PRIMARY KEY (id, time)
+) PARTITION BY RANGE (time);
+
+-- Rede de segurança para linhas fora das partições mensais criadas pelo job de retenção
+CREATE TABLE message_default PARTITION OF message DEFAULT;
+
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(time) FROM message_legacy), now()))::date;
+    last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF message FOR VALUES FROM (%L) TO (%L)',
+                'message_p' || to_char(month_start, 'YYYY_MM'),
+                month_start,
+                (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO message (id, text, time, status, project_id, user_id)
+SELECT id, text, time, status, project_id, user_id FROM message_legacy;
+
+DROP TABLE message_legacy;
+
+-- Os mesmos índices da V11 e da V12, agora criados em cada partição
+CREATE INDEX idx_message_project_time ON message (project_id, time DESC, id DESC);
+CREATE INDEX idx_message_search_vector ON message USING GIN (search_vector);
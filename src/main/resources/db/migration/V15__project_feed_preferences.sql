@@ -0,0 +1,13 @@
+-- O feed FAN_OUT_ON_READ passa a aplicar as preferências de notificação na leitura, como o fan-out faz por
+-- destinatário: o evento guarda a categoria do modelo e o responsável pela task.
+
+ALTER TABLE notification_event ADD COLUMN category VARCHAR(32);
+ALTER TABLE notification_event ADD COLUMN task_owner_id INTEGER;
+UPDATE notification_event SET category = CASE
+    WHEN template IN ('CHAT_MESSAGE', 'CHAT_MESSAGE_DELETED') THEN 'CHAT'
+    WHEN template LIKE 'TASK\_%' THEN 'TASK'
+    ELSE 'PROJECT' END;
+ALTER TABLE notification_event ALTER COLUMN category SET NOT NULL;
+
+-- As preferências deixam de ficar em memória: o fan-out lê as do projeto a cada evento
+CREATE INDEX idx_notification_preference_project ON notification_preference (project_id);
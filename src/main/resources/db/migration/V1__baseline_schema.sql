@@ -0,0 +1,53 @@
+-- Esquema equivalente ao que o Hibernate (ddl-auto=update) gerava até aqui.
+-- Bancos já existentes são marcados nesta versão pelo baseline-on-migrate e não executam este script.
+
+CREATE TABLE users_tb (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    role VARCHAR(255) NOT NULL CHECK (role IN ('ROLE_ADMIN', 'ROLE_USER')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE project (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR DEFAULT 'Nenhuma descrição atribuída a este projeto.',
+    status VARCHAR(255) CHECK (status IN ('ACTIVE', 'COMPLETED')),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE user_project (
+    project_id INTEGER NOT NULL REFERENCES project (id),
+    user_id INTEGER NOT NULL REFERENCES users_tb (id)
+);
+
+CREATE TABLE task (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    title VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('TO_DO', 'DONE')),
+    project_id INTEGER NOT NULL REFERENCES project (id),
+    task_owner_id INTEGER REFERENCES users_tb (id),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE message (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    text VARCHAR(255) NOT NULL,
+    time TIMESTAMP(6) NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('READ', 'NOT_READ')),
+    project_id INTEGER NOT NULL REFERENCES project (id),
+    user_id INTEGER NOT NULL REFERENCES users_tb (id),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE notification (
+    id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+    text_notification VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('READ', 'NOT_READ')),
+    time TIMESTAMP(6) NOT NULL,
+    user_destin_id INTEGER NOT NULL REFERENCES users_tb (id),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,41 @@
+-- Troca IDENTITY por sequences com incremento 50 (otimizador pooled do Hibernate),
+-- o que permite ao Hibernate agrupar os INSERTs em lotes JDBC.
+-- Cada sequence começa depois do maior id existente para não colidir com as linhas antigas.
+
+ALTER TABLE users_tb ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE users_tb_seq INCREMENT BY 50;
+SELECT setval('users_tb_seq', COALESCE((SELECT MAX(id) FROM users_tb), 0) + 50, false);
+
+ALTER TABLE project ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE project_seq INCREMENT BY 50;
+SELECT setval('project_seq', COALESCE((SELECT MAX(id) FROM project), 0) + 50, false);
+
+ALTER TABLE task ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE task_seq INCREMENT BY 50;
+SELECT setval('task_seq', COALESCE((SELECT MAX(id) FROM task), 0) + 50, false);
+
+ALTER TABLE message ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE message_seq INCREMENT BY 50;
+SELECT setval('message_seq', COALESCE((SELECT MAX(id) FROM message), 0) + 50, false);
+
+ALTER TABLE notification ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE notification_seq INCREMENT BY 50;
+SELECT setval('notification_seq', COALESCE((SELECT MAX(id) FROM notification), 0) + 50, false);
+
+-- O outbox veio depois do baseline, então bancos marcados no V1 ainda não têm a tabela.
+-- IF NOT EXISTS cobre os que já a tinham criado pelo ddl-auto=update.
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id INTEGER NOT NULL,
+    project_id INTEGER NOT NULL,
+    text_notification VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'PROCESSING', 'FAILED')),
+    attempts INTEGER NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    available_at TIMESTAMP(6) NOT NULL,
+    locked_at TIMESTAMP(6),
+    last_error VARCHAR(1000),
+    PRIMARY KEY (id)
+);
+ALTER TABLE notification_outbox ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE notification_outbox_seq INCREMENT BY 50;
+SELECT setval('notification_outbox_seq', COALESCE((SELECT MAX(id) FROM notification_outbox), 0) + 50, false);
@@ -0,0 +1,8 @@
+-- Índices do feed paginado por (time, id): com e sem filtro de status.
+-- CONCURRENTLY evita bloquear escritas na tabela durante a criação.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notification_user_status_time
+    ON notification (user_destin_id, status, time DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_notification_user_time
+    ON notification (user_destin_id, time DESC, id DESC);
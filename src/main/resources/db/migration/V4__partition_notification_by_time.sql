@@ -0,0 +1,55 @@
+-- Particiona notification por mês (RANGE em "time") para que a retenção possa descartar
+-- partições inteiras. Em tabelas particionadas a chave primária precisa conter a coluna de partição.
+
+ALTER TABLE notification RENAME TO notification_legacy;
+ALTER TABLE notification_legacy RENAME CONSTRAINT notification_pkey TO notification_legacy_pkey;
+DROP INDEX IF EXISTS idx_notification_user_status_time;
+DROP INDEX IF EXISTS idx_notification_user_time;
+
+CREATE TABLE notification (
+    id INTEGER NOT NULL,
+    text_notification VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('READ', 'NOT_READ')),
+    time TIMESTAMP(6) NOT NULL,
+    user_destin_id INTEGER NOT NULL REFERENCES users_tb (id),
+    PRIMARY KEY (id, time)
+) PARTITION BY RANGE (time);
+
+-- Rede de segurança para linhas fora das partições mensais criadas pelo job de retenção
+CREATE TABLE notification_default PARTITION OF notification DEFAULT;
+
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(time) FROM notification_legacy), now()))::date;
+    last_month DATE := (date_trunc('month', now()) + INTERVAL '3 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF notification FOR VALUES FROM (%L) TO (%L)',
+                'notification_p' || to_char(month_start, 'YYYY_MM'),
+                month_start,
+                (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO notification (id, text_notification, status, time, user_destin_id)
+SELECT id, text_notification, status, time, user_destin_id FROM notification_legacy;
+
+DROP TABLE notification_legacy;
+
+CREATE INDEX idx_notification_user_status_time ON notification (user_destin_id, status, time DESC, id DESC);
+CREATE INDEX idx_notification_user_time ON notification (user_destin_id, time DESC, id DESC);
+
+-- Usado pela retenção para achar rapidamente as notificações lidas mais antigas
+CREATE INDEX idx_notification_read_time ON notification (time) WHERE status = 'READ';
+
+-- Destino das notificações quando notification.retention.mode=ARCHIVE
+CREATE TABLE notification_archive (
+    id INTEGER NOT NULL,
+    text_notification VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    time TIMESTAMP(6) NOT NULL,
+    user_destin_id INTEGER NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, time)
+);
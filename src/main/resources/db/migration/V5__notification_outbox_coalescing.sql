@@ -0,0 +1,8 @@
+-- Coalescência de notificações: no máximo um evento PENDING por chave (projeto + task).
+-- O índice único parcial é o alvo do INSERT ... ON CONFLICT usado pelo NotificationOutboxRepository.
+
+ALTER TABLE notification_outbox ADD COLUMN coalesce_key VARCHAR(255);
+ALTER TABLE notification_outbox ADD COLUMN coalesced_count INTEGER NOT NULL DEFAULT 1;
+
+CREATE UNIQUE INDEX ux_notification_outbox_pending_key
+    ON notification_outbox (coalesce_key) WHERE status = 'PENDING';
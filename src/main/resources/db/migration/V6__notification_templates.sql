@@ -0,0 +1,29 @@
+-- Notificações de projeto passam a guardar modelo + parâmetros uma única vez por evento (notification_event),
+-- e cada linha de notification só referencia o evento. O texto é montado na leitura.
+
+CREATE SEQUENCE notification_event_seq INCREMENT BY 50;
+
+CREATE TABLE notification_event (
+    id INTEGER PRIMARY KEY,
+    template VARCHAR(64) NOT NULL,
+    params JSONB NOT NULL,
+    project_id INTEGER,
+    coalesced_count INTEGER NOT NULL DEFAULT 1,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+-- Sem FK, como no outbox: a retenção remove eventos órfãos depois que as notificações saem
+ALTER TABLE notification ADD COLUMN event_id INTEGER;
+ALTER TABLE notification ALTER COLUMN text_notification DROP NOT NULL;
+CREATE INDEX idx_notification_event ON notification (event_id) WHERE event_id IS NOT NULL;
+
+ALTER TABLE notification_archive ADD COLUMN event_id INTEGER;
+ALTER TABLE notification_archive ALTER COLUMN text_notification DROP NOT NULL;
+
+-- O outbox também deixa de carregar o texto pronto
+ALTER TABLE notification_outbox ADD COLUMN template VARCHAR(64);
+ALTER TABLE notification_outbox ADD COLUMN params JSONB;
+UPDATE notification_outbox SET template = 'TEXT', params = jsonb_build_array(text_notification);
+ALTER TABLE notification_outbox ALTER COLUMN template SET NOT NULL;
+ALTER TABLE notification_outbox ALTER COLUMN params SET NOT NULL;
+ALTER TABLE notification_outbox DROP COLUMN text_notification;
@@ -0,0 +1,17 @@
+-- Modo FAN_OUT_ON_READ: o evento de projeto é gravado uma vez e o feed de cada usuário o combina
+-- com as notificações diretas na leitura, usando uma marca de leitura por usuário e projeto.
+
+ALTER TABLE notification_event ADD COLUMN fan_out_on_read BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_notification_event_project_feed
+    ON notification_event (project_id, created_at DESC, id) WHERE fan_out_on_read;
+
+CREATE TABLE project_read_watermark (
+    user_id INTEGER NOT NULL REFERENCES users_tb (id) ON DELETE CASCADE,
+    project_id INTEGER NOT NULL REFERENCES project (id) ON DELETE CASCADE,
+    read_up_to TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (user_id, project_id)
+);
+
+-- Usado pelo subselect de membros nas consultas do feed
+CREATE INDEX IF NOT EXISTS idx_user_project_user ON user_project (user_id, project_id);
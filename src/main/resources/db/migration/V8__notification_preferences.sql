@@ -0,0 +1,12 @@
+-- Preferências de notificação por usuário e projeto, carregadas em memória pelo NotificationPreferenceIndex
+CREATE TABLE notification_preference (
+    user_id INTEGER NOT NULL REFERENCES users_tb (id) ON DELETE CASCADE,
+    project_id INTEGER NOT NULL REFERENCES project (id) ON DELETE CASCADE,
+    mute_project BOOLEAN NOT NULL DEFAULT FALSE,
+    mute_chat BOOLEAN NOT NULL DEFAULT FALSE,
+    only_assigned_tasks BOOLEAN NOT NULL DEFAULT FALSE,
+    PRIMARY KEY (user_id, project_id)
+);
+
+-- Responsável pela task, para o filtro "só minhas tasks" no fan-out
+ALTER TABLE notification_outbox ADD COLUMN task_owner_id INTEGER;
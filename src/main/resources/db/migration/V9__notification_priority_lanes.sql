@@ -0,0 +1,5 @@
+-- Prioridade de entrega: cada prioridade é despachada por um agendamento e uma fila próprios
+ALTER TABLE notification_outbox ADD COLUMN priority VARCHAR(16) NOT NULL DEFAULT 'NORMAL';
+
+CREATE INDEX idx_notification_outbox_priority_dispatch
+    ON notification_outbox (priority, status, available_at, id);
@@ -0,0 +1,64 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import project_management_api.project_management_api.repository.ProjectRepository;
+import project_management_api.project_management_api.service.ChatMembershipCache;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatMembershipCacheTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    private ChatMembershipCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ChatMembershipCache(projectRepository, 60_000);
+    }
+
+    @Test
+    public void isMember_LoadsProjectOnlyOnce() {
+        when(projectRepository.findMemberIds(10)).thenReturn(List.of(1, 2));
+
+        assertTrue(cache.isMember(10, 1));
+        assertTrue(cache.isMember(10, 2));
+        assertFalse(cache.isMember(10, 3));
+
+        verify(projectRepository, times(1)).findMemberIds(10);
+    }
+
+    @Test
+    public void evict_ReloadsMembersOnNextCheck() {
+        when(projectRepository.findMemberIds(10)).thenReturn(List.of(1)).thenReturn(List.of(1, 3));
+
+        assertFalse(cache.isMember(10, 3));
+        cache.evict(10);
+
+        assertTrue(cache.isMember(10, 3));
+    }
+
+    @Test
+    public void isMember_ReloadsAfterTtl() {
+        cache = new ChatMembershipCache(projectRepository, 0);
+        when(projectRepository.findMemberIds(10)).thenReturn(List.of(1));
+
+        cache.isMember(10, 1);
+        cache.isMember(10, 1);
+
+        verify(projectRepository, times(2)).findMemberIds(10);
+    }
+}
@@ -0,0 +1,137 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import project_management_api.project_management_api.dto.NotificationInputDTOToProject;
+import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.UserRepository;
+import project_management_api.project_management_api.service.ChatMessageWriteBehind;
+import project_management_api.project_management_api.service.ChatMessageWriteBehind.PendingMessage;
+import project_management_api.project_management_api.service.NotificationService;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatMessageWriteBehindTest {
+
+    private static final String NEXTVAL = "SELECT nextval('message_seq')";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private ChatMessageWriteBehind writeBehind;
+
+    @BeforeEach
+    void setUp() {
+        writeBehind = new ChatMessageWriteBehind(jdbcTemplate, transactionManager, notificationService,
+                userRepository, new SimpleMeterRegistry(), true, 2, 3);
+    }
+
+    @Test
+    public void nextId_UsesSequenceBlocks() {
+        when(jdbcTemplate.queryForObject(NEXTVAL, Long.class)).thenReturn(50L, 100L);
+
+        assertEquals(1, writeBehind.nextId());
+        for (int i = 2; i <= 50; i++) {
+            writeBehind.nextId();
+        }
+        assertEquals(51, writeBehind.nextId());
+        verify(jdbcTemplate, times(2)).queryForObject(NEXTVAL, Long.class);
+    }
+
+    @Test
+    public void flush_WritesPendingMessagesInBatchesAndNotifiesProjects() {
+        when(userRepository.findAllById(anyList())).thenReturn(List.of(user(1, "Matheus")));
+        when(jdbcTemplate.queryForObject(NEXTVAL, Long.class)).thenReturn(50L);
+        writeBehind.enqueue(message(1, 10));
+        writeBehind.enqueue(message(2, 20));
+        writeBehind.enqueue(message(3, 10));
+
+        writeBehind.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat(batch -> batch.size() == 2), eq(2), setter());
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat(batch -> batch.size() == 1), eq(1), setter());
+        verify(notificationService, times(3)).sendNotificationToProject(any(NotificationInputDTOToProject.class));
+    }
+
+    @Test
+    public void enqueue_RejectsWhenQueueIsFull() {
+        assertTrue(writeBehind.enqueue(message(1, 10)));
+        assertTrue(writeBehind.enqueue(message(2, 10)));
+        assertTrue(writeBehind.enqueue(message(3, 10)));
+
+        assertFalse(writeBehind.enqueue(message(4, 10)));
+    }
+
+    @Test
+    public void flush_RetriesFailedBatchOneByOneAndDropsInvalidMessage() {
+        when(userRepository.findAllById(anyList())).thenReturn(List.of(user(1, "Matheus")));
+        when(jdbcTemplate.queryForObject(NEXTVAL, Long.class)).thenReturn(50L);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), setter()))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenThrow(new DataIntegrityViolationException("fk_project"))
+                .thenReturn(new int[][] { { 1 } });
+        writeBehind.enqueue(message(1, 99));
+        writeBehind.enqueue(message(2, 10));
+
+        writeBehind.flush();
+        verify(notificationService, never()).sendNotificationToProject(any(NotificationInputDTOToProject.class));
+
+        writeBehind.flush();
+        verify(notificationService, times(1)).sendNotificationToProject(any(NotificationInputDTOToProject.class));
+        // As duas vagas voltaram para a fila: uma gravada, outra descartada
+        assertTrue(writeBehind.enqueue(message(3, 10)));
+        assertTrue(writeBehind.enqueue(message(4, 10)));
+        assertTrue(writeBehind.enqueue(message(5, 10)));
+    }
+
+    private static PendingMessage message(int id, int projectId) {
+        return new PendingMessage(id, projectId, 1, "Mensagem " + id, LocalDateTime.now());
+    }
+
+    private static User user(int id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        return user;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ParameterizedPreparedStatementSetter<Object> setter() {
+        return any(ParameterizedPreparedStatementSetter.class);
+    }
+}
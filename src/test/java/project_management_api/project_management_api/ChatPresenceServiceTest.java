@@ -0,0 +1,168 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.security.Principal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import project_management_api.project_management_api.dto.ChatPresenceDiffDTO;
+import project_management_api.project_management_api.service.ChatMembershipCache;
+import project_management_api.project_management_api.service.ChatPresenceService;
+import project_management_api.project_management_api.service.UserService;
+
+@ExtendWith(MockitoExtension.class)
+public class ChatPresenceServiceTest {
+
+    private static final String PRESENCE_TOPIC = "/topic/project/10/presence";
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ChatMembershipCache chatMembershipCache;
+
+    private final Principal alice = () -> "alice@email.com";
+    private ChatPresenceService presence;
+
+    @BeforeEach
+    void setUp() {
+        presence = new ChatPresenceService(messagingTemplate, userService, chatMembershipCache,
+                new SimpleMeterRegistry(), 60_000);
+        lenient().when(userService.getUserIdByEmail("alice@email.com")).thenReturn(1);
+        lenient().when(chatMembershipCache.isMember(10, 1)).thenReturn(true);
+    }
+
+    @Test
+    public void publishChanges_SendsJoinOnceAndNothingWithoutChanges() {
+        presence.onSubscribe(subscribe("s1", "sub-0", "/topic/project/10", alice));
+
+        presence.publishChanges();
+        presence.publishChanges();
+
+        ChatPresenceDiffDTO diff = capture(1).get(0);
+        assertEquals(List.of(1), diff.getJoined());
+        assertEquals(List.of(), diff.getLeft());
+    }
+
+    @Test
+    public void publishChanges_CoalescesJoinAndLeaveInSameInterval() {
+        presence.onSubscribe(subscribe("s1", "sub-0", "/topic/project/10", alice));
+        presence.onUnsubscribe(unsubscribe("s1", "sub-0", alice));
+
+        presence.publishChanges();
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    public void onSubscribe_IgnoresNonMembers() {
+        when(chatMembershipCache.isMember(10, 1)).thenReturn(false);
+
+        presence.onSubscribe(subscribe("s1", "sub-0", "/topic/project/10", alice));
+        presence.publishChanges();
+
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    public void typing_PublishesStartAndStop() {
+        presence.onSubscribe(subscribe("s1", "sub-0", "/topic/project/10", alice));
+        presence.publishChanges();
+
+        presence.typing(10, alice, true);
+        presence.typing(10, alice, true);
+        presence.publishChanges();
+        presence.typing(10, alice, false);
+        presence.publishChanges();
+
+        List<ChatPresenceDiffDTO> diffs = capture(3);
+        assertEquals(List.of(1), diffs.get(1).getStartedTyping());
+        assertEquals(List.of(1), diffs.get(2).getStoppedTyping());
+    }
+
+    @Test
+    public void typing_ExpiresAfterTtl() {
+        presence = new ChatPresenceService(messagingTemplate, userService, chatMembershipCache,
+                new SimpleMeterRegistry(), 0);
+        presence.onSubscribe(subscribe("s1", "sub-0", "/topic/project/10", alice));
+        presence.publishChanges();
+
+        presence.typing(10, alice, true);
+        presence.publishChanges();
+
+        capture(1);
+        assertEquals(List.of(), presence.snapshot(10, alice).getTyping());
+    }
+
+    @Test
+    public void onDisconnect_LeavesAfterLastSubscriptionOfSession() {
+        presence.onSubscribe(subscribe("s1", "sub-0", "/topic/project/10", alice));
+        presence.onSubscribe(subscribe("s1", "sub-1", PRESENCE_TOPIC, alice));
+        presence.publishChanges();
+
+        presence.onUnsubscribe(unsubscribe("s1", "sub-1", alice));
+        presence.publishChanges();
+        assertEquals(List.of(1), presence.snapshot(10, alice).getOnline());
+
+        presence.onDisconnect(new SessionDisconnectEvent(this, frame(StompCommand.DISCONNECT, "s1", null, null),
+                "s1", CloseStatus.NORMAL, alice));
+        presence.publishChanges();
+
+        assertEquals(List.of(1), capture(2).get(1).getLeft());
+        assertEquals(List.of(), presence.snapshot(10, alice).getOnline());
+    }
+
+    private List<ChatPresenceDiffDTO> capture(int expected) {
+        ArgumentCaptor<ChatPresenceDiffDTO> captor = ArgumentCaptor.forClass(ChatPresenceDiffDTO.class);
+        verify(messagingTemplate, times(expected)).convertAndSend(eq(PRESENCE_TOPIC), captor.capture());
+        verify(messagingTemplate, times(expected)).convertAndSend(any(String.class), any(Object.class));
+        return captor.getAllValues();
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String subscriptionId, String destination,
+            Principal user) {
+        return new SessionSubscribeEvent(this, frame(StompCommand.SUBSCRIBE, sessionId, subscriptionId, destination),
+                user);
+    }
+
+    private SessionUnsubscribeEvent unsubscribe(String sessionId, String subscriptionId, Principal user) {
+        return new SessionUnsubscribeEvent(this, frame(StompCommand.UNSUBSCRIBE, sessionId, subscriptionId, null),
+                user);
+    }
+
+    private static Message<byte[]> frame(StompCommand command, String sessionId, String subscriptionId,
+            String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
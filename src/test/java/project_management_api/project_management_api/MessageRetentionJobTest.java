@@ -0,0 +1,48 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import project_management_api.project_management_api.service.MessageRetentionJob;
+import project_management_api.project_management_api.service.PartitionMaintenance;
+
+@ExtendWith(MockitoExtension.class)
+public class MessageRetentionJobTest {
+
+    @Mock
+    private PartitionMaintenance partitionMaintenance;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void run_CreatesUpcomingPartitionsAndDropsExpiredOnes() {
+        MessageRetentionJob job = new MessageRetentionJob(partitionMaintenance, meterRegistry, true, 24, 3);
+        LocalDate cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(24);
+        when(partitionMaintenance.dropPartitionsOlderThan("message", cutoff)).thenReturn(2);
+
+        job.run();
+
+        verify(partitionMaintenance).ensureMonthlyPartitions("message", 3);
+        assertEquals(2.0, meterRegistry.get("message.retention.partitions.dropped").counter().count());
+    }
+
+    @Test
+    public void dropExpiredPartitions_KeepsEverythingWithoutRetention() {
+        MessageRetentionJob job = new MessageRetentionJob(partitionMaintenance, meterRegistry, true, 0, 3);
+
+        assertEquals(0, job.dropExpiredPartitions());
+        verify(partitionMaintenance, never()).dropPartitionsOlderThan(eq("message"), any());
+    }
+}
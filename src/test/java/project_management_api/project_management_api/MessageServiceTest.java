@@ -2,13 +2,21 @@ package project_management_api.project_management_api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,19 +26,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import project_management_api.project_management_api.dto.ChatReadStateReturnDTO;
 import project_management_api.project_management_api.dto.MessageInputDTO;
+import project_management_api.project_management_api.dto.MessagePageReturnDTO;
 import project_management_api.project_management_api.dto.MessageReturnDTO;
+import project_management_api.project_management_api.dto.MessageSearchPageReturnDTO;
 import project_management_api.project_management_api.dto.NotificationInputDTOToProject;
 import project_management_api.project_management_api.enums.MessageStatus;
 import project_management_api.project_management_api.enums.RoleName;
+import project_management_api.project_management_api.model.ChatReadCursor;
 import project_management_api.project_management_api.model.Message;
 import project_management_api.project_management_api.model.Project;
 import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.ChatReadCursorRepository;
 import project_management_api.project_management_api.repository.MessageRepository;
+import project_management_api.project_management_api.repository.MessageSearchHit;
 import project_management_api.project_management_api.repository.ProjectRepository;
 import project_management_api.project_management_api.repository.UserRepository;
+import project_management_api.project_management_api.service.ChatMembershipCache;
+import project_management_api.project_management_api.service.ChatMessageWriteBehind;
+import project_management_api.project_management_api.service.KeysetCursor;
 import project_management_api.project_management_api.service.MessageService;
 import project_management_api.project_management_api.service.NotificationService;
 import project_management_api.project_management_api.service.UserService;
@@ -47,12 +66,21 @@ public class MessageServiceTest {
     @Mock
     private MessageRepository messageRepository;
 
+    @Mock
+    private ChatReadCursorRepository chatReadCursorRepository;
+
     @Mock
     private NotificationService notificationService;
 
     @Mock
     private UserService userService;
 
+    @Mock
+    private ChatMembershipCache chatMembershipCache;
+
+    @Mock
+    private ChatMessageWriteBehind chatMessageWriteBehind;
+
     @InjectMocks
     private MessageService messageService;
 
@@ -77,6 +105,7 @@ public class MessageServiceTest {
         project = new Project();
         project.setId(10);
         project.setName("Projeto Teste");
+        project.setUsers(new ArrayList<>());
         project.getUsers().add(user);
 
         message = new Message();
@@ -122,66 +151,243 @@ public class MessageServiceTest {
     }
 
     @Test
-    public void markRead_Success() {
-        when(messageRepository.findById(message.getId())).thenReturn(Optional.of(message));
-        when(userService.getAuthenticatedUser()).thenReturn(user);
+    public void sendMessageWriteBehind_PublishesWithoutTouchingTheDatabase() {
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(chatMembershipCache.isMember(project.getId(), user.getId())).thenReturn(true);
+        when(chatMessageWriteBehind.nextId()).thenReturn(151);
+        when(chatMessageWriteBehind.enqueue(any(ChatMessageWriteBehind.PendingMessage.class))).thenReturn(true);
 
-        MessageReturnDTO result = messageService.markRead(message.getId());
+        MessageReturnDTO result = messageService.sendMessageWriteBehind(project.getId(), messageInputDTO);
 
-        assertNotNull(result);
-        assertEquals(MessageStatus.READ, result.getStatus());
-        verify(messageRepository).save(any(Message.class));
+        assertEquals(151, result.getId());
+        assertEquals(messageInputDTO.getText(), result.getText());
+        assertEquals(project.getId(), result.getProjectId());
+        verify(messageRepository, never()).save(any(Message.class));
+        verify(projectRepository, never()).findById(any());
+        verify(notificationService, never()).sendNotificationToProject(any(NotificationInputDTOToProject.class));
     }
 
     @Test
-    public void markRead_WhenAlreadyMarkedRead() {
-        message.setStatus(MessageStatus.READ);
-        when(messageRepository.findById(message.getId())).thenReturn(Optional.of(message));
-        when(userService.getAuthenticatedUser()).thenReturn(user);
+    public void sendMessageWriteBehind_WhenUserNotInProject() {
+        when(userService.getAuthenticatedUserId()).thenReturn(anotherUser.getId());
+        when(chatMembershipCache.isMember(project.getId(), anotherUser.getId())).thenReturn(false);
+
+        assertThrows(ResponseStatusException.class,
+                () -> messageService.sendMessageWriteBehind(project.getId(), messageInputDTO));
+        verify(chatMessageWriteBehind, never()).enqueue(any());
+    }
+
+    @Test
+    public void sendMessageWriteBehind_WhenTextIsTooLong() {
+        messageInputDTO.setText("a".repeat(256));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> messageService.sendMessageWriteBehind(project.getId(), messageInputDTO));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(chatMessageWriteBehind);
+    }
+
+    @Test
+    public void sendMessageWriteBehind_WhenQueueIsFull() {
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(chatMembershipCache.isMember(project.getId(), user.getId())).thenReturn(true);
+        when(chatMessageWriteBehind.nextId()).thenReturn(151);
+        when(chatMessageWriteBehind.enqueue(any(ChatMessageWriteBehind.PendingMessage.class))).thenReturn(false);
+
+        assertThrows(ResponseStatusException.class,
+                () -> messageService.sendMessageWriteBehind(project.getId(), messageInputDTO));
+    }
+
+    @Test
+    public void markRead_AdvancesCursorOfTheMessageProject() {
+        ChatReadCursor cursor = new ChatReadCursor();
+        cursor.setLastReadMessageId(message.getId());
+        when(messageRepository.findProjectIdById(message.getId())).thenReturn(Optional.of(project.getId()));
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(chatReadCursorRepository.advance(user.getId(), project.getId(), message.getId())).thenReturn(1);
+        when(chatReadCursorRepository.findById(new ChatReadCursor.Key(user.getId(), project.getId())))
+                .thenReturn(Optional.of(cursor));
+        when(messageRepository.countUnread(project.getId(), user.getId())).thenReturn(3L);
+
+        ChatReadStateReturnDTO result = messageService.markRead(message.getId());
+
+        assertEquals(project.getId(), result.getProjectId());
+        assertEquals(message.getId(), result.getLastReadMessageId());
+        assertEquals(3L, result.getUnreadCount());
+        verify(messageRepository, never()).save(any(Message.class));
+    }
+
+    @Test
+    public void markRead_WhenMessageNotFound() {
+        when(messageRepository.findProjectIdById(message.getId())).thenReturn(Optional.empty());
 
         assertThrows(ResponseStatusException.class, () -> messageService.markRead(message.getId()));
     }
 
     @Test
-    public void markRead_WhenUserNotAuthorized() {
-        when(messageRepository.findById(message.getId())).thenReturn(Optional.of(message));
-        when(userService.getAuthenticatedUser()).thenReturn(anotherUser);
+    public void markProjectRead_WhenCursorIsAlreadyAhead() {
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(chatReadCursorRepository.advance(user.getId(), project.getId(), message.getId())).thenReturn(0);
+        when(messageRepository.existsByIdAndProject_Id(message.getId(), project.getId())).thenReturn(true);
+        when(projectRepository.existsByIdAndUsers_Id(project.getId(), user.getId())).thenReturn(true);
+        when(chatReadCursorRepository.findById(any())).thenReturn(Optional.empty());
+
+        ChatReadStateReturnDTO result = messageService.markProjectRead(project.getId(), message.getId());
+
+        assertEquals(0L, result.getUnreadCount());
+    }
+
+    @Test
+    public void markProjectRead_WhenMessageIsFromAnotherProject() {
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(chatReadCursorRepository.advance(user.getId(), 99, message.getId())).thenReturn(0);
+        when(messageRepository.existsByIdAndProject_Id(message.getId(), 99)).thenReturn(false);
+
+        assertThrows(ResponseStatusException.class, () -> messageService.markProjectRead(99, message.getId()));
+    }
+
+    @Test
+    public void markProjectRead_WhenUserNotAuthorized() {
+        when(userService.getAuthenticatedUserId()).thenReturn(anotherUser.getId());
+        when(chatReadCursorRepository.advance(anotherUser.getId(), project.getId(), message.getId())).thenReturn(0);
+        when(messageRepository.existsByIdAndProject_Id(message.getId(), project.getId())).thenReturn(true);
+        when(projectRepository.existsByIdAndUsers_Id(project.getId(), anotherUser.getId())).thenReturn(false);
 
         assertThrows(ResponseStatusException.class,
-                () -> messageService.markRead(message.getId()));
+                () -> messageService.markProjectRead(project.getId(), message.getId()));
     }
 
     @Test
-    public void search_Success() {
-        project.getMessages().add(message);
-        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
-        when(userService.getAuthenticatedUser()).thenReturn(user);
+    public void getChatReadState_WhenUserIsNotMember() {
+        when(userService.getAuthenticatedUserId()).thenReturn(anotherUser.getId());
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(projectRepository.existsByIdAndUsers_Id(project.getId(), anotherUser.getId())).thenReturn(false);
+
+        assertThrows(ResponseStatusException.class, () -> messageService.getChatReadState(project.getId()));
+        verify(messageRepository, never()).countUnread(anyInt(), anyInt());
+    }
 
-        List<MessageReturnDTO> result = messageService.search(project.getId(), "Mensagem");
+    @Test
+    public void search_Success() {
+        MessageSearchHit hit = mock(MessageSearchHit.class);
+        when(hit.getId()).thenReturn(message.getId());
+        when(hit.getText()).thenReturn(message.getText());
+        when(hit.getStatus()).thenReturn("NOT_READ");
+        when(hit.getSnippet()).thenReturn("\u0002Mensagem\u0003 de <script>teste</script>");
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(projectRepository.existsByIdAndUsers_Id(project.getId(), user.getId())).thenReturn(true);
+        when(messageRepository.search(project.getId(), "Mensagem", 21, 0L)).thenReturn(List.of(hit));
+
+        MessageSearchPageReturnDTO result = messageService.search(project.getId(), "Mensagem", null, null);
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(message.getText(), result.get(0).getText());
+        assertEquals(1, result.getItems().size());
+        assertEquals(message.getText(), result.getItems().get(0).getText());
+        // Só os termos encontrados viram HTML; o texto da mensagem chega escapado
+        assertEquals("<mark>Mensagem</mark> de &lt;script&gt;teste&lt;/script&gt;",
+                result.getItems().get(0).getSnippet());
+        assertNull(result.getNextPage());
+    }
+
+    @Test
+    public void search_ReturnsNextPageWhenMoreResultsExist() {
+        MessageSearchHit hit = mock(MessageSearchHit.class);
+        when(hit.getStatus()).thenReturn("NOT_READ");
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(projectRepository.existsByIdAndUsers_Id(project.getId(), user.getId())).thenReturn(true);
+        when(messageRepository.search(project.getId(), "Mensagem", 3, 4L)).thenReturn(List.of(hit, hit, hit));
+
+        MessageSearchPageReturnDTO result = messageService.search(project.getId(), "Mensagem", 2, 2);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(3, result.getNextPage());
     }
 
     @Test
     public void search_WhenProjectNotFound() {
-        when(projectRepository.findById(project.getId())).thenReturn(Optional.empty());
-        when(userService.getAuthenticatedUser()).thenReturn(user);
+        when(projectRepository.existsById(project.getId())).thenReturn(false);
+
+        assertThrows(ResponseStatusException.class,
+                () -> messageService.search(project.getId(), "Mensagem", null, null));
+    }
+
+    @Test
+    public void search_WhenUserIsNotMember() {
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(userService.getAuthenticatedUserId()).thenReturn(anotherUser.getId());
+        when(projectRepository.existsByIdAndUsers_Id(project.getId(), anotherUser.getId())).thenReturn(false);
 
         assertThrows(ResponseStatusException.class,
-                () -> messageService.search(project.getId(), "Mensagem"));
+                () -> messageService.search(project.getId(), "Mensagem", null, null));
+        verify(messageRepository, never()).search(any(), any(), anyInt(), anyLong());
     }
 
     @Test
     public void search_WhenMessageNotFound() {
-        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
-        when(userService.getAuthenticatedUser()).thenReturn(user);
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(projectRepository.existsByIdAndUsers_Id(project.getId(), user.getId())).thenReturn(true);
 
-        List<MessageReturnDTO> result = messageService.search(project.getId(), "none");
+        MessageSearchPageReturnDTO result = messageService.search(project.getId(), "none", null, null);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
+        assertTrue(result.getItems().isEmpty());
+    }
+
+    @Test
+    public void search_WhenTextIsBlank() {
+        assertThrows(ResponseStatusException.class, () -> messageService.search(project.getId(), " ", null, null));
+    }
+
+    @Test
+    public void getProjectHistory_ReturnsCursorWhenMorePagesExist() {
+        LocalDateTime now = LocalDateTime.now();
+        List<MessageReturnDTO> rows = List.of(
+                new MessageReturnDTO(3, "c", now, MessageStatus.NOT_READ, project.getId(), user.getId()),
+                new MessageReturnDTO(2, "b", now.minusMinutes(1), MessageStatus.NOT_READ, project.getId(),
+                        user.getId()),
+                new MessageReturnDTO(1, "a", now.minusMinutes(2), MessageStatus.NOT_READ, project.getId(),
+                        user.getId()));
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(projectRepository.existsByIdAndUsers_Id(project.getId(), user.getId())).thenReturn(true);
+        when(messageRepository.findHistory(eq(project.getId()), any(Pageable.class))).thenReturn(rows);
+
+        MessagePageReturnDTO page = messageService.getProjectHistory(project.getId(), null, 2);
+
+        assertEquals(List.of(3, 2), page.getItems().stream().map(MessageReturnDTO::getId).toList());
+        KeysetCursor cursor = KeysetCursor.decode(page.getNextCursor());
+        assertEquals(2, cursor.getId());
+        assertEquals(now.minusMinutes(1), cursor.getTime());
+    }
+
+    @Test
+    public void getProjectHistory_ContinuesFromCursor() {
+        LocalDateTime time = LocalDateTime.of(2024, 5, 1, 10, 0);
+        String before = new KeysetCursor(time, 2).encode();
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(projectRepository.existsByIdAndUsers_Id(project.getId(), user.getId())).thenReturn(true);
+        when(messageRepository.findHistoryBefore(eq(project.getId()), eq(time), eq(2), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        MessagePageReturnDTO page = messageService.getProjectHistory(project.getId(), before, null);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    public void getProjectHistory_WhenUserIsNotMember() {
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(userService.getAuthenticatedUserId()).thenReturn(anotherUser.getId());
+        when(projectRepository.existsByIdAndUsers_Id(project.getId(), anotherUser.getId())).thenReturn(false);
+
+        assertThrows(ResponseStatusException.class,
+                () -> messageService.getProjectHistory(project.getId(), null, null));
     }
 
     @Test
@@ -197,7 +403,6 @@ public class MessageServiceTest {
     @Test
     public void getMessageById_WhenMessageNotFound() {
         when(messageRepository.findById(message.getId())).thenReturn(Optional.empty());
-        when(userService.getAuthenticatedUser()).thenReturn(user);
 
         assertThrows(ResponseStatusException.class, () -> messageService.getMessageById(message.getId()));
     }
@@ -236,7 +441,6 @@ public class MessageServiceTest {
     @Test
     public void deleteMessage_WhenMessageNotFound() {
         when(messageRepository.findById(message.getId())).thenReturn(Optional.empty());
-        when(userService.getAuthenticatedUser()).thenReturn(user);
 
         assertThrows(ResponseStatusException.class, () -> messageService.deleteMessage(message.getId()));
     }
@@ -0,0 +1,154 @@
+package project_management_api.project_management_api;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import project_management_api.project_management_api.enums.NotificationTemplate;
+import project_management_api.project_management_api.model.Notification;
+import project_management_api.project_management_api.model.NotificationEvent;
+import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.NotificationEventRepository;
+import project_management_api.project_management_api.repository.NotificationRepository;
+import project_management_api.project_management_api.repository.UserRepository;
+import project_management_api.project_management_api.service.NotificationBulkWriter;
+
+// Compara JPA saveAll, JDBC batch e COPY no fan-out de notificações de projeto.
+// Precisa de um PostgreSQL real (o do application.properties) e só roda com -Dnotification.benchmark=true:
+//   mvn test -Dtest=NotificationBulkInsertBenchmark -Dnotification.benchmark=true
+// Cada medição roda em uma transação desfeita no final, então o banco não é alterado.
+@SpringBootTest
+@EnabledIfSystemProperty(named = "notification.benchmark", matches = "true")
+public class NotificationBulkInsertBenchmark {
+
+    private static final int[] RECIPIENTS = { 100, 1_000, 10_000 };
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 5;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationEventRepository notificationEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationBulkWriter notificationBulkWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void compareInsertStrategies() {
+        System.out.printf("%-12s %10s %10s %10s%n", "destinatários", "JPA (ms)", "batch (ms)", "COPY (ms)");
+        for (int recipients : RECIPIENTS) {
+            System.out.printf("%-12d %10.1f %10.1f %10.1f%n", recipients,
+                    median(recipients, this::insertWithJpa),
+                    median(recipients, this::insertWithJdbcBatch),
+                    median(recipients, this::insertWithCopy));
+        }
+    }
+
+    private double median(int recipients, Consumer<Fixture> strategy) {
+        double[] samples = new double[MEASURED_RUNS];
+        for (int run = 0; run < WARMUP_RUNS + MEASURED_RUNS; run++) {
+            double elapsed = measure(recipients, strategy);
+            if (run >= WARMUP_RUNS) {
+                samples[run - WARMUP_RUNS] = elapsed;
+            }
+        }
+        Arrays.sort(samples);
+        return samples[MEASURED_RUNS / 2];
+    }
+
+    // Prepara usuário e evento fora da medição e desfaz tudo no final
+    private double measure(int recipients, Consumer<Fixture> strategy) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Double elapsed = transaction.execute(status -> {
+            status.setRollbackOnly();
+
+            User user = new User();
+            user.setName("Benchmark");
+            user.setEmail("benchmark-" + System.nanoTime() + "@example.com");
+            user.setPassword("benchmark");
+            userRepository.save(user);
+
+            NotificationEvent event = new NotificationEvent();
+            event.setTemplate(NotificationTemplate.TEXT);
+            event.setParams(List.of("Benchmark"));
+            notificationEventRepository.save(event);
+            entityManager.flush();
+
+            Fixture fixture = new Fixture(user, event, Collections.nCopies(recipients, user.getId()));
+            long start = System.nanoTime();
+            strategy.accept(fixture);
+            return (System.nanoTime() - start) / 1_000_000.0;
+        });
+        return elapsed != null ? elapsed : Double.NaN;
+    }
+
+    private void insertWithJpa(Fixture fixture) {
+        List<Notification> notifications = new ArrayList<>(fixture.userIds.size());
+        for (int i = 0; i < fixture.userIds.size(); i++) {
+            Notification notification = new Notification();
+            notification.setEvent(fixture.event);
+            notification.setTime(fixture.time);
+            notification.setUserDestin(fixture.user);
+            notifications.add(notification);
+        }
+        notificationRepository.saveAll(notifications);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void insertWithJdbcBatch(Fixture fixture) {
+        List<Integer> ids = notificationBulkWriter.reserveIds(fixture.userIds.size());
+        Timestamp time = Timestamp.valueOf(fixture.time);
+
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            rows.add(new Object[] { ids.get(i), fixture.event.getId(), "NOT_READ", time, fixture.userIds.get(i) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO notification (id, event_id, status, time, user_destin_id) "
+                + "VALUES (?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertWithCopy(Fixture fixture) {
+        notificationBulkWriter.copyProjectNotifications(fixture.event.getId(), fixture.time, fixture.userIds);
+    }
+
+    private static final class Fixture {
+
+        private final User user;
+        private final NotificationEvent event;
+        private final List<Integer> userIds;
+        private final LocalDateTime time = LocalDateTime.now();
+
+        private Fixture(User user, NotificationEvent event, List<Integer> userIds) {
+            this.user = user;
+            this.event = event;
+            this.userIds = userIds;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import project_management_api.project_management_api.enums.NotificationPriority;
+import project_management_api.project_management_api.service.NotificationDeliveryLanes;
+
+public class NotificationDeliveryLanesTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationDeliveryLanes lanes;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lanes = new NotificationDeliveryLanes(meterRegistry, 1, 10, 1, 10, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    public void execute_HighIsNotDelayedByBusyLowLane() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 5; i++) {
+            lanes.execute(NotificationPriority.LOW, () -> {
+                started.countDown();
+                await(release);
+            });
+        }
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        CountDownLatch delivered = new CountDownLatch(1);
+        lanes.execute(NotificationPriority.HIGH, delivered::countDown);
+
+        assertTrue(delivered.await(2, TimeUnit.SECONDS));
+        assertEquals(4, lanes.getQueueDepth(NotificationPriority.LOW));
+        release.countDown();
+    }
+
+    @Test
+    public void invokeAll_WaitsForBatchAndRecordsLatency() throws InterruptedException {
+        AtomicInteger done = new AtomicInteger();
+        List<Runnable> jobs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            jobs.add(done::incrementAndGet);
+        }
+
+        lanes.invokeAll(NotificationPriority.NORMAL, jobs);
+
+        assertEquals(3, done.get());
+        assertEquals(3, meterRegistry.get("notification.lane.latency").tag("lane", "normal").timer().count());
+        assertEquals(0.0, meterRegistry.get("notification.lane.queue.depth").tag("lane", "normal").gauge().value());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package project_management_api.project_management_api;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import project_management_api.project_management_api.repository.NotificationRepository;
+import project_management_api.project_management_api.service.NotificationDeliveryTracker;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationDeliveryTrackerTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationDeliveryTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new NotificationDeliveryTracker(notificationRepository, transactionManager,
+                new SimpleMeterRegistry(), 2, 4);
+    }
+
+    @Test
+    public void flush_WritesAcknowledgementsInBatches() {
+        tracker.markDelivered(List.of(1, 2, 3));
+
+        tracker.flush();
+
+        verify(notificationRepository).markDelivered(eq(List.of(1, 2)), any(LocalDateTime.class));
+        verify(notificationRepository).markDelivered(eq(List.of(3)), any(LocalDateTime.class));
+    }
+
+    @Test
+    public void markDelivered_DropsWhenQueueIsFull() {
+        tracker.markDelivered(List.of(1, 2, 3, 4, 5, 6));
+
+        tracker.flush();
+
+        verify(notificationRepository).markDelivered(eq(List.of(1, 2)), any(LocalDateTime.class));
+        verify(notificationRepository).markDelivered(eq(List.of(3, 4)), any(LocalDateTime.class));
+        verify(notificationRepository, never()).markDelivered(eq(List.of(5, 6)), any(LocalDateTime.class));
+    }
+
+    @Test
+    public void flush_DoesNothingWithoutAcknowledgements() {
+        tracker.flush();
+
+        verify(notificationRepository, never()).markDelivered(anyList(), any(LocalDateTime.class));
+    }
+}
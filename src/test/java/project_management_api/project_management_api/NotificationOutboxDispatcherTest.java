@@ -0,0 +1,215 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import project_management_api.project_management_api.enums.NotificationPriority;
+import project_management_api.project_management_api.enums.OutboxStatus;
+import project_management_api.project_management_api.model.NotificationOutbox;
+import project_management_api.project_management_api.repository.NotificationOutboxRepository;
+import project_management_api.project_management_api.service.NotificationDeliveryLanes;
+import project_management_api.project_management_api.service.NotificationOutboxDispatcher;
+import project_management_api.project_management_api.service.NotificationService;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationOutboxDispatcherTest {
+
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private NotificationDeliveryLanes deliveryLanes;
+
+    private NotificationOutboxDispatcher dispatcher;
+    private NotificationOutbox event;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        dispatcher = new NotificationOutboxDispatcher(notificationOutboxRepository, notificationService,
+                transactionManager, deliveryLanes, 100, 3, 500, 300_000, 120_000);
+
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        lenient().doAnswer(invocation -> {
+            List<Runnable> jobs = invocation.getArgument(1);
+            jobs.forEach(Runnable::run);
+            return null;
+        }).when(deliveryLanes).invokeAll(any(), anyList());
+
+        event = new NotificationOutbox();
+        event.setId(7);
+        event.setProjectId(10);
+        event.setCoalesceKey("10:TASK_UPDATED:3");
+    }
+
+    @Test
+    public void dispatch_ClaimsBatchAndFansOut() throws InterruptedException {
+        when(notificationOutboxRepository.findDispatchableForUpdate(eq("NORMAL"), any(), eq(100)))
+                .thenReturn(List.of(event));
+
+        dispatcher.dispatchNormal();
+
+        assertEquals(OutboxStatus.PROCESSING, event.getStatus());
+        assertTrue(event.getLockedAt() != null);
+        verify(notificationOutboxRepository).saveAll(List.of(event));
+        verify(deliveryLanes).invokeAll(eq(NotificationPriority.NORMAL), anyList());
+        verify(notificationService).fanOutProjectNotification(7);
+    }
+
+    @Test
+    public void dispatch_ReschedulesWithBackoffWhenFanOutFails() throws InterruptedException {
+        claim();
+        doThrow(new IllegalStateException("falhou")).when(notificationService).fanOutProjectNotification(7);
+        when(notificationOutboxRepository.findById(7)).thenReturn(Optional.of(event));
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatchNormal();
+
+        assertEquals(OutboxStatus.PENDING, event.getStatus());
+        assertEquals(1, event.getAttempts());
+        assertNull(event.getLockedAt());
+        assertTrue(event.getAvailableAt().isAfter(before));
+        assertTrue(event.getLastError().contains("falhou"));
+        verify(notificationOutboxRepository).saveAndFlush(event);
+    }
+
+    @Test
+    public void dispatch_MarksFailedAfterMaxAttempts() throws InterruptedException {
+        event.setAttempts(2);
+        claim();
+        doThrow(new IllegalStateException("falhou")).when(notificationService).fanOutProjectNotification(7);
+        when(notificationOutboxRepository.findById(7)).thenReturn(Optional.of(event));
+
+        dispatcher.dispatchNormal();
+
+        assertEquals(OutboxStatus.FAILED, event.getStatus());
+        assertEquals(3, event.getAttempts());
+        verify(notificationOutboxRepository).save(event);
+        verify(notificationOutboxRepository, never()).mergeIntoPendingSibling(anyInt());
+    }
+
+    @Test
+    public void dispatch_MergesIntoPendingSiblingOnReschedule() throws InterruptedException {
+        claim();
+        doThrow(new IllegalStateException("falhou")).when(notificationService).fanOutProjectNotification(7);
+        when(notificationOutboxRepository.findById(7)).thenReturn(Optional.of(event));
+        when(notificationOutboxRepository.mergeIntoPendingSibling(7)).thenReturn(1);
+
+        dispatcher.dispatchNormal();
+
+        // O evento foi apagado pela junção: a entidade não pode ficar com alteração pendente
+        assertEquals(OutboxStatus.PROCESSING, event.getStatus());
+        assertEquals(0, event.getAttempts());
+        verify(notificationOutboxRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void dispatch_RetriesRescheduleWhenSiblingAppearsConcurrently() throws InterruptedException {
+        claim();
+        doThrow(new IllegalStateException("falhou")).when(notificationService).fanOutProjectNotification(7);
+        when(notificationOutboxRepository.findById(7)).thenReturn(Optional.of(event));
+        when(notificationOutboxRepository.mergeIntoPendingSibling(7)).thenReturn(0).thenReturn(1);
+        doThrow(new DataIntegrityViolationException("ux_notification_outbox_pending_key"))
+                .when(notificationOutboxRepository).saveAndFlush(event);
+
+        dispatcher.dispatchNormal();
+
+        verify(notificationOutboxRepository, times(2)).mergeIntoPendingSibling(7);
+        verify(notificationOutboxRepository).saveAndFlush(event);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    public void dispatch_LeavesEventForStaleReleaseWhenRescheduleKeepsFailing() throws InterruptedException {
+        claim();
+        doThrow(new IllegalStateException("falhou")).when(notificationService).fanOutProjectNotification(7);
+        // Cada tentativa roda em uma transação nova e relê a linha, sem as alterações da que voltou
+        when(notificationOutboxRepository.findById(7)).thenAnswer(invocation -> Optional.of(copyOf(event)));
+        doThrow(new DataIntegrityViolationException("ux_notification_outbox_pending_key"))
+                .when(notificationOutboxRepository).saveAndFlush(any());
+
+        dispatcher.dispatchNormal();
+
+        verify(notificationOutboxRepository, times(3)).saveAndFlush(any());
+        verify(notificationOutboxRepository, never()).save(any());
+    }
+
+    @Test
+    public void releaseStale_ReturnsEventsToPendingOneByOne() {
+        NotificationOutbox other = new NotificationOutbox();
+        other.setId(8);
+        other.setStatus(OutboxStatus.PROCESSING);
+        event.setStatus(OutboxStatus.PROCESSING);
+        event.setLockedAt(LocalDateTime.now().minusHours(1));
+        when(notificationOutboxRepository.findStaleIds(eq(OutboxStatus.PROCESSING), any()))
+                .thenReturn(List.of(7, 8));
+        when(notificationOutboxRepository.lockStale(eq(7), any())).thenReturn(Optional.of(event));
+        when(notificationOutboxRepository.lockStale(eq(8), any())).thenReturn(Optional.of(other));
+        doThrow(new IllegalStateException("falhou")).when(notificationOutboxRepository).saveAndFlush(event);
+
+        dispatcher.releaseStale();
+
+        // A falha do primeiro não impede a liberação do segundo
+        assertEquals(OutboxStatus.PENDING, other.getStatus());
+        assertNull(other.getLockedAt());
+        verify(notificationOutboxRepository).saveAndFlush(other);
+        verify(notificationOutboxRepository, never()).mergeIntoPendingSibling(8);
+    }
+
+    @Test
+    public void releaseStale_MergesIntoPendingSibling() {
+        event.setStatus(OutboxStatus.PROCESSING);
+        when(notificationOutboxRepository.findStaleIds(eq(OutboxStatus.PROCESSING), any())).thenReturn(List.of(7));
+        when(notificationOutboxRepository.lockStale(eq(7), any())).thenReturn(Optional.of(event));
+        when(notificationOutboxRepository.mergeIntoPendingSibling(7)).thenReturn(1);
+
+        dispatcher.releaseStale();
+
+        verify(notificationOutboxRepository, never()).saveAndFlush(any());
+    }
+
+    private static NotificationOutbox copyOf(NotificationOutbox source) {
+        NotificationOutbox copy = new NotificationOutbox();
+        copy.setId(source.getId());
+        copy.setProjectId(source.getProjectId());
+        copy.setCoalesceKey(source.getCoalesceKey());
+        copy.setStatus(OutboxStatus.PROCESSING);
+        copy.setAttempts(source.getAttempts());
+        return copy;
+    }
+
+    private void claim() {
+        when(notificationOutboxRepository.findDispatchableForUpdate(eq("NORMAL"), any(), eq(100)))
+                .thenReturn(List.of(event));
+    }
+}
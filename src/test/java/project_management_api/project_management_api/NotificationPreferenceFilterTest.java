@@ -0,0 +1,97 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import project_management_api.project_management_api.enums.NotificationCategory;
+import project_management_api.project_management_api.model.NotificationPreference;
+import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.NotificationPreferenceRepository;
+import project_management_api.project_management_api.service.NotificationPreferenceFilter;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationPreferenceFilterTest {
+
+    @Mock
+    private NotificationPreferenceRepository notificationPreferenceRepository;
+
+    @InjectMocks
+    private NotificationPreferenceFilter filter;
+
+    private User ana;
+    private User bruno;
+    private User carla;
+    private List<User> members;
+
+    @BeforeEach
+    void setUp() {
+        ana = user(1);
+        bruno = user(2);
+        carla = user(3);
+        members = List.of(ana, bruno, carla);
+    }
+
+    @Test
+    public void filterRecipients_ReturnsMembersWhenProjectHasNoPreferences() {
+        when(notificationPreferenceRepository.findByProjectId(10)).thenReturn(List.of());
+
+        assertSame(members, filter.filterRecipients(10, NotificationCategory.CHAT, null, members));
+    }
+
+    @Test
+    public void filterRecipients_AppliesMutesReadFromDatabase() {
+        when(notificationPreferenceRepository.findByProjectId(10)).thenReturn(List.of(
+                preference(1, 10, true, false, false),
+                preference(2, 10, false, true, false)));
+
+        assertEquals(List.of(carla), filter.filterRecipients(10, NotificationCategory.CHAT, null, members));
+        assertEquals(List.of(bruno, carla), filter.filterRecipients(10, NotificationCategory.TASK, null, members));
+    }
+
+    @Test
+    public void filterRecipients_OnlyAssignedTasksKeepsTaskOwner() {
+        when(notificationPreferenceRepository.findByProjectId(10)).thenReturn(List.of(
+                preference(1, 10, false, false, true),
+                preference(2, 10, false, false, true)));
+
+        assertEquals(List.of(bruno, carla), filter.filterRecipients(10, NotificationCategory.TASK, 2, members));
+        assertEquals(members, filter.filterRecipients(10, NotificationCategory.PROJECT, null, members));
+    }
+
+    @Test
+    public void filterRecipients_SeesPreferenceChangesImmediately() {
+        when(notificationPreferenceRepository.findByProjectId(10))
+                .thenReturn(List.of(preference(1, 10, true, false, false)))
+                .thenReturn(List.of(preference(1, 10, false, false, false)));
+
+        assertEquals(List.of(bruno, carla), filter.filterRecipients(10, NotificationCategory.CHAT, null, members));
+        assertEquals(members, filter.filterRecipients(10, NotificationCategory.CHAT, null, members));
+    }
+
+    private static User user(Integer id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static NotificationPreference preference(Integer userId, Integer projectId, boolean muteProject,
+            boolean muteChat, boolean onlyAssignedTasks) {
+        NotificationPreference preference = new NotificationPreference();
+        preference.setUserId(userId);
+        preference.setProjectId(projectId);
+        preference.setMuteProject(muteProject);
+        preference.setMuteChat(muteChat);
+        preference.setOnlyAssignedTasks(onlyAssignedTasks);
+        return preference;
+    }
+}
@@ -0,0 +1,90 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import project_management_api.project_management_api.service.NotificationRetentionJob;
+import project_management_api.project_management_api.service.PartitionMaintenance;
+
+@ExtendWith(MockitoExtension.class)
+public class NotificationRetentionJobTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PartitionMaintenance partitionMaintenance;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationRetentionJob job;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        job = new NotificationRetentionJob(jdbcTemplate, partitionMaintenance, meterRegistry,
+                true, "DELETE", 90, 100, 0, 12, 3);
+    }
+
+    @Test
+    public void purgeReadNotifications_RunsBatchesUntilOneIsNotFull() {
+        when(jdbcTemplate.update(anyString(), any(), eq(100))).thenReturn(100, 100, 40);
+
+        long purged = job.purgeReadNotifications();
+
+        assertEquals(240, purged);
+        verify(jdbcTemplate, times(3)).update(anyString(), any(), eq(100));
+        assertEquals(240.0, meterRegistry.get("notification.retention.purged").counter().count());
+    }
+
+    @Test
+    public void purgeOrphanEvents_SkipsFanOutOnReadEvents() {
+        when(jdbcTemplate.update(contains("NOT e.fan_out_on_read"), any(), eq(100))).thenReturn(3);
+
+        assertEquals(3, job.purgeOrphanEvents());
+        verify(jdbcTemplate, times(1)).update(anyString(), any(), eq(100));
+    }
+
+    @Test
+    public void purgeReadProjectEvents_OnlyRemovesFanOutOnReadEventsEveryMemberRead() {
+        when(jdbcTemplate.update(contains("WHERE e.fan_out_on_read"), any(), eq(100))).thenReturn(0);
+
+        assertEquals(0, job.purgeReadProjectEvents());
+        verify(jdbcTemplate).update(contains("w.read_up_to IS NULL OR w.read_up_to < e.created_at"), any(),
+                eq(100));
+    }
+
+    @Test
+    public void dropExpiredPartitions_KeepsPartitionsWithUnreadNotifications() {
+        when(partitionMaintenance.removePartitionsOlderThan(eq("notification"), any(), eq("status = 'NOT_READ'"),
+                isNull())).thenReturn(2);
+
+        assertEquals(2, job.dropExpiredPartitions());
+        assertEquals(2.0, meterRegistry.get("notification.retention.partitions.dropped").counter().count());
+    }
+
+    @Test
+    public void dropExpiredPartitions_ArchivesPartitionRowsInArchiveMode() {
+        job = new NotificationRetentionJob(jdbcTemplate, partitionMaintenance, meterRegistry,
+                true, "ARCHIVE", 90, 100, 0, 12, 3);
+        when(partitionMaintenance.removePartitionsOlderThan(eq("notification"), any(), eq("status = 'NOT_READ'"),
+                startsWith("INSERT INTO notification_archive"))).thenReturn(1);
+
+        assertEquals(1, job.dropExpiredPartitions());
+    }
+}
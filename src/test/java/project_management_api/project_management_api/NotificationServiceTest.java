@@ -1,39 +1,68 @@
 package project_management_api.project_management_api;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.server.ResponseStatusException;
 
-import project_management_api.project_management_api.controller.SseController;
+import project_management_api.project_management_api.dto.NotificationBulkReadReturnDTO;
 import project_management_api.project_management_api.dto.NotificationInputDTOToProject;
 import project_management_api.project_management_api.dto.NotificationInputDTOToUser;
+import project_management_api.project_management_api.dto.NotificationPageReturnDTO;
 import project_management_api.project_management_api.dto.NotificationReturnDTO;
 import project_management_api.project_management_api.dto.NotificationReturnDTOTProject;
+import project_management_api.project_management_api.dto.NotificationUnreadCountReturnDTO;
+import project_management_api.project_management_api.enums.NotificationCategory;
+import project_management_api.project_management_api.enums.NotificationPriority;
 import project_management_api.project_management_api.enums.NotificationStatus;
+import project_management_api.project_management_api.enums.NotificationTemplate;
+import project_management_api.project_management_api.enums.ProjectNotificationStorage;
 import project_management_api.project_management_api.enums.ProjectStatus;
 import project_management_api.project_management_api.model.Notification;
+import project_management_api.project_management_api.model.NotificationEvent;
+import project_management_api.project_management_api.model.NotificationOutbox;
 import project_management_api.project_management_api.model.Project;
+import project_management_api.project_management_api.model.ProjectReadWatermark;
 import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.NotificationEventRepository;
+import project_management_api.project_management_api.repository.NotificationOutboxRepository;
 import project_management_api.project_management_api.repository.NotificationRepository;
+import project_management_api.project_management_api.repository.ProjectReadWatermarkRepository;
 import project_management_api.project_management_api.repository.ProjectRepository;
+import project_management_api.project_management_api.repository.ProjectUnreadEvents;
 import project_management_api.project_management_api.repository.UserRepository;
+import project_management_api.project_management_api.service.KeysetCursor;
+import project_management_api.project_management_api.service.NotificationBulkWriter;
+import project_management_api.project_management_api.service.NotificationDeliveryLanes;
+import project_management_api.project_management_api.service.NotificationDeliveryTracker;
+import project_management_api.project_management_api.service.NotificationPreferenceFilter;
 import project_management_api.project_management_api.service.NotificationService;
+import project_management_api.project_management_api.service.SseSubscriptionRegistry;
+import project_management_api.project_management_api.service.UnreadNotificationCounter;
 import project_management_api.project_management_api.service.UserService;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,20 +82,45 @@ public class NotificationServiceTest {
     @Mock
     private NotificationRepository notificationRepository;
 
+    @Mock
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Mock
+    private NotificationEventRepository notificationEventRepository;
+
+    @Mock
+    private ProjectReadWatermarkRepository projectReadWatermarkRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
-    private SseController sseController;
+    private SseSubscriptionRegistry sseSubscriptionRegistry;
+
+    @Mock
+    private UnreadNotificationCounter unreadNotificationCounter;
+
+    @Mock
+    private NotificationBulkWriter notificationBulkWriter;
+
+    @Mock
+    private NotificationPreferenceFilter notificationPreferenceFilter;
+
+    @Mock
+    private NotificationDeliveryLanes notificationDeliveryLanes;
+
+    @Mock
+    private NotificationDeliveryTracker notificationDeliveryTracker;
 
     @Mock
     private UserService userService;
 
-    @InjectMocks
     private NotificationService notificationService;
 
     @BeforeEach
     void setUp() {
+        notificationService = newService(0L, ProjectNotificationStorage.FAN_OUT_ON_WRITE, 0);
+
         // Usuário principal
         user = new User();
         user.setId(1);
@@ -81,6 +135,7 @@ public class NotificationServiceTest {
         project.setId(10);
         project.setName("Projeto Teste");
         project.setStatus(ProjectStatus.ACTIVE);
+        project.setUsers(new ArrayList<>());
         project.getUsers().add(user);
         project.getUsers().add(anotherUser);
 
@@ -109,40 +164,142 @@ public class NotificationServiceTest {
         notificationToUser.setTextNotification("Mensagem direta para o usuário");
 
         // Simula que o usuário já tem notificações
+        user.setNotifications(new ArrayList<>());
         user.getNotifications().add(notification);
         user.getNotifications().add(anotherNotification);
     }
 
     @Test
     public void sendNotificationToProject_Success() {
-        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(projectRepository.countUsersById(project.getId())).thenReturn(2L);
 
         NotificationReturnDTOTProject result = notificationService.sendNotificationToProject(notificationToProject);
 
         assertEquals(notificationToProject.getTextNotification(), result.getTextNotification());
-        verify(notificationRepository).saveAll(anyList());
-        verify(projectRepository).findById(project.getId());
-        verify(sseController).sendNotification(anyString());
+        assertEquals(2, result.getTotalUsersNotified());
+        verify(notificationOutboxRepository).save(any(NotificationOutbox.class));
+        verify(notificationRepository, never()).saveAll(anyList());
+        verify(sseSubscriptionRegistry, never()).sendToProject(any(), anyList(), any(), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void fanOutProjectNotification_SharesOneEventAcrossRecipients() {
+        NotificationOutbox event = new NotificationOutbox();
+        event.setId(500);
+        event.setProjectId(project.getId());
+        event.setTemplate(NotificationTemplate.CHAT_MESSAGE);
+        event.setParams(List.of("Maria", "Bom dia"));
+        when(notificationOutboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+        allowAllRecipients();
+
+        notificationService.fanOutProjectNotification(event.getId());
+
+        ArgumentCaptor<List<Notification>> saved = ArgumentCaptor.forClass(List.class);
+        verify(notificationEventRepository).save(any(NotificationEvent.class));
+        verify(notificationRepository).saveAll(saved.capture());
+        NotificationEvent shared = saved.getValue().get(0).getEvent();
+        for (Notification n : saved.getValue()) {
+            assertSame(shared, n.getEvent());
+            assertNull(n.getTextNotification());
+        }
+        assertEquals("Maria: \nBom dia", notificationService.toNotificationDTO(saved.getValue().get(0))
+                .getTextNotification());
     }
 
     @Test
     public void sendNotificationToProject_WhenProjectNotFound() {
-        when(projectRepository.findById(project.getId())).thenReturn(Optional.empty());
+        when(projectRepository.existsById(project.getId())).thenReturn(false);
 
         assertThrows(ResponseStatusException.class,
                 () -> notificationService.sendNotificationToProject(notificationToProject));
     }
 
+    @Test
+    public void fanOutProjectNotification_Success() {
+        NotificationOutbox event = new NotificationOutbox();
+        event.setId(500);
+        event.setProjectId(project.getId());
+        event.setTemplate(NotificationTemplate.TEXT);
+        event.setParams(List.of("Mensagem para o projeto"));
+        when(notificationOutboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+        allowAllRecipients();
+
+        int notified = notificationService.fanOutProjectNotification(event.getId());
+
+        assertEquals(2, notified);
+        verify(notificationRepository).saveAll(anyList());
+        verify(notificationOutboxRepository).delete(event);
+        verify(sseSubscriptionRegistry).sendToProject(eq(project.getId()), anyList(), anyList(), anyString());
+    }
+
+    @Test
+    public void sendNotificationToProject_CoalescesTaskUpdates() {
+        notificationService = newService(5000L, ProjectNotificationStorage.FAN_OUT_ON_WRITE, 0);
+        when(projectRepository.existsById(project.getId())).thenReturn(true);
+        when(notificationOutboxRepository.nextId()).thenReturn(500);
+        NotificationInputDTOToProject taskUpdate = new NotificationInputDTOToProject(NotificationTemplate.TASK_UPDATED,
+                List.of("Login", "Projeto Teste"), project.getId(), 30);
+
+        notificationService.sendNotificationToProject(taskUpdate);
+
+        verify(notificationOutboxRepository).upsertCoalesced(eq(500), eq(project.getId()), eq("TASK_UPDATED"),
+                eq("[\"Login\",\"Projeto Teste\"]"), isNull(), eq("NORMAL"), eq("project:10:task:30"),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(notificationOutboxRepository, never()).save(any(NotificationOutbox.class));
+    }
+
+    @Test
+    public void fanOutProjectNotification_BuildsDigestForCoalescedEvents() {
+        NotificationOutbox event = new NotificationOutbox();
+        event.setId(500);
+        event.setProjectId(project.getId());
+        event.setTemplate(NotificationTemplate.TASK_UPDATED);
+        event.setParams(List.of("Login", "Projeto Teste"));
+        event.setCoalescedCount(3);
+        when(notificationOutboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+        allowAllRecipients();
+
+        notificationService.fanOutProjectNotification(event.getId());
+
+        verify(sseSubscriptionRegistry).sendToProject(eq(project.getId()), anyList(), any(),
+                eq("Projeto Teste| ACTIVE\nTask 'Login' foi atualizada no projeto Projeto Teste "
+                        + "(3 atualizações agrupadas)"));
+    }
+
+    @Test
+    public void fanOutProjectNotification_WhenProjectWasDeleted() {
+        NotificationOutbox event = new NotificationOutbox();
+        event.setId(500);
+        event.setProjectId(project.getId());
+        event.setTemplate(NotificationTemplate.TEXT);
+        event.setParams(List.of("Mensagem para o projeto"));
+        when(notificationOutboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(projectRepository.findById(project.getId())).thenReturn(Optional.empty());
+
+        assertEquals(0, notificationService.fanOutProjectNotification(event.getId()));
+        verify(notificationOutboxRepository).delete(event);
+    }
+
     @Test
     public void sendNotificationToUser_Success() {
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(notificationDeliveryLanes).execute(eq(NotificationPriority.HIGH), any(Runnable.class));
 
         NotificationReturnDTO result = notificationService.sendNotificationToUser(notificationToUser);
 
         assertEquals(notificationToUser.getTextNotification(), result.getTextNotification());
         verify(notificationRepository).save(any(Notification.class));
         verify(userRepository).findById(user.getId());
-        verify(sseController).sendNotification(anyString());
+        verify(sseSubscriptionRegistry).sendToUser(eq(user.getId()), any(), anyString());
+        verify(notificationDeliveryLanes).execute(eq(NotificationPriority.HIGH), any(Runnable.class));
     }
 
     @Test
@@ -160,7 +317,7 @@ public class NotificationServiceTest {
 
         NotificationReturnDTO result = notificationService.markRead(notification.getId());
 
-        assertEquals(NotificationStatus.READ.toString(), result.getStatus());
+        assertEquals(NotificationStatus.READ, result.getStatus());
         verify(notificationRepository).save(any(Notification.class));
     }
 
@@ -192,46 +349,272 @@ public class NotificationServiceTest {
     @Test
     public void markAllRead_Success() {
         when(userService.getAuthenticatedUser()).thenReturn(user);
+        when(notificationRepository.updateStatusByUser(user.getId(), NotificationStatus.NOT_READ,
+                NotificationStatus.READ)).thenReturn(2);
 
-        notification.setStatus(NotificationStatus.NOT_READ);
-        anotherNotification.setStatus(NotificationStatus.NOT_READ);
+        NotificationBulkReadReturnDTO result = notificationService.markAllRead();
+
+        assertEquals(2, result.getTotalMarkedRead());
+        verify(notificationRepository, never()).saveAll(anyList());
+        verify(unreadNotificationCounter).decrement(user.getId(), 2);
+    }
 
-        user.setNotifications(List.of(notification, anotherNotification));
+    @Test
+    public void markAllRead_AdvancesProjectWatermarkToLatestUnreadEvent() {
+        LocalDateTime latest = LocalDateTime.now().minusMinutes(1);
+        ProjectUnreadEvents unread = new ProjectUnreadEvents() {
+            @Override
+            public Integer getProjectId() {
+                return project.getId();
+            }
+
+            @Override
+            public long getUnread() {
+                return 3;
+            }
+
+            @Override
+            public LocalDateTime getLatest() {
+                return latest;
+            }
+        };
+        when(userService.getAuthenticatedUser()).thenReturn(user);
+        when(notificationEventRepository.findUnreadByProject(eq(user.getId()), any(LocalDateTime.class)))
+                .thenReturn(List.of(unread));
 
-        List<NotificationReturnDTO> result = notificationService.markAllRead();
+        NotificationBulkReadReturnDTO result = notificationService.markAllRead();
 
-        assertEquals(2, result.size());
-        assertEquals(NotificationStatus.READ.toString(), result.get(0).getStatus());
-        assertEquals(NotificationStatus.READ.toString(), result.get(1).getStatus());
-        verify(notificationRepository).saveAll(anyList());
+        assertEquals(3, result.getTotalMarkedRead());
+        verify(projectReadWatermarkRepository).advance(user.getId(), project.getId(), latest);
+        verify(unreadNotificationCounter).decrement(user.getId(), 3);
+    }
+
+    @Test
+    public void getUnreadCount_Success() {
+        when(userService.getAuthenticatedUserId()).thenReturn(user.getId());
+        when(unreadNotificationCounter.get(user.getId())).thenReturn(7L);
+
+        NotificationUnreadCountReturnDTO result = notificationService.getUnreadCount();
+
+        assertEquals(7L, result.getUnreadCount());
+        verify(notificationRepository, never()).countByUserDestin_IdAndStatus(any(), any());
+    }
+
+    @Test
+    public void markReadByIds_Success() {
+        when(userService.getAuthenticatedUser()).thenReturn(user);
+        List<Integer> ids = List.of(notification.getId(), anotherNotification.getId());
+        when(notificationRepository.updateStatusByUserAndIds(user.getId(), ids, NotificationStatus.NOT_READ,
+                NotificationStatus.READ)).thenReturn(2);
+
+        NotificationBulkReadReturnDTO result = notificationService.markReadByIds(ids);
+
+        assertEquals(2, result.getTotalMarkedRead());
+    }
+
+    @Test
+    public void markReadByIds_WhenListIsEmpty() {
+        assertThrows(ResponseStatusException.class, () -> notificationService.markReadByIds(List.of()));
+    }
+
+    @Test
+    public void markReadByTimeRange_WhenRangeIsInvalid() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThrows(ResponseStatusException.class,
+                () -> notificationService.markReadByTimeRange(now, now.minusDays(1)));
     }
 
     @Test
     public void getNotificationsByUser_Success() {
         when(userService.getAuthenticatedUser()).thenReturn(user);
+        when(notificationRepository.findFeed(eq(user.getId()), any(Pageable.class)))
+                .thenReturn(List.of(notification, anotherNotification));
+
+        NotificationPageReturnDTO result = notificationService.getNotificationsByUser(null, null, null);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(notification.getTextNotification(), result.getItems().get(0).getTextNotification());
+        assertEquals(anotherNotification.getTextNotification(), result.getItems().get(1).getTextNotification());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    public void getNotificationsByUser_ReturnsCursorWhenThereAreMorePages() {
+        when(userService.getAuthenticatedUser()).thenReturn(user);
+        when(notificationRepository.findFeed(eq(user.getId()), any(Pageable.class)))
+                .thenReturn(List.of(notification, anotherNotification));
+
+        NotificationPageReturnDTO result = notificationService.getNotificationsByUser(null, null, 1);
+
+        assertEquals(1, result.getItems().size());
+        KeysetCursor cursor = KeysetCursor.decode(result.getNextCursor());
+        assertEquals(notification.getId(), cursor.getId());
+        assertEquals(notification.getTime(), cursor.getTime());
+    }
+
+    @Test
+    public void fanOutProjectNotification_UsesCopyAboveThreshold() {
+        notificationService = newService(0L, ProjectNotificationStorage.FAN_OUT_ON_WRITE, 2);
+        NotificationOutbox event = new NotificationOutbox();
+        event.setId(500);
+        event.setProjectId(project.getId());
+        event.setTemplate(NotificationTemplate.TEXT);
+        event.setParams(List.of("Mensagem para o projeto"));
+        when(notificationOutboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+        allowAllRecipients();
+
+        notificationService.fanOutProjectNotification(event.getId());
+
+        ArgumentCaptor<NotificationEvent> saved = ArgumentCaptor.forClass(NotificationEvent.class);
+        verify(notificationEventRepository).save(saved.capture());
+        verify(notificationBulkWriter).copyProjectNotifications(any(), eq(saved.getValue().getCreatedAt()),
+                eq(List.of(user.getId(), anotherUser.getId())));
+        verify(notificationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void fanOutProjectNotification_FanOutOnReadWritesOnlyTheEvent() {
+        notificationService = newService(0L, ProjectNotificationStorage.FAN_OUT_ON_READ, 0);
+        NotificationOutbox event = new NotificationOutbox();
+        event.setId(500);
+        event.setProjectId(project.getId());
+        event.setTemplate(NotificationTemplate.TEXT);
+        event.setParams(List.of("Mensagem para o projeto"));
+        event.setCreatedAt(LocalDateTime.now().minusMinutes(5));
+        when(notificationOutboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+        allowAllRecipients();
+
+        int notified = notificationService.fanOutProjectNotification(event.getId());
+
+        assertEquals(2, notified);
+        ArgumentCaptor<NotificationEvent> saved = ArgumentCaptor.forClass(NotificationEvent.class);
+        verify(notificationEventRepository).save(saved.capture());
+        assertTrue(saved.getValue().isFanOutOnRead());
+        // Usados pelo feed para aplicar as preferências na leitura
+        assertEquals(NotificationCategory.PROJECT, saved.getValue().getCategory());
+        // Horário do despacho: uma marca de leitura gravada enquanto o evento esperava no outbox não o cobre
+        assertTrue(saved.getValue().getCreatedAt().isAfter(event.getCreatedAt()));
+        verify(notificationRepository, never()).saveAll(anyList());
+        verify(unreadNotificationCounter).increment(List.of(user.getId(), anotherUser.getId()));
+    }
+
+    @Test
+    public void getNotificationsByUser_MergesProjectEventsWithWatermark() {
+        LocalDateTime now = LocalDateTime.now();
+        notification.setTime(now);
+        anotherNotification.setTime(now.minusMinutes(10));
+
+        NotificationEvent unreadEvent = projectEvent(7, now.minusMinutes(5));
+        NotificationEvent readEvent = projectEvent(8, now.minusMinutes(20));
+
+        ProjectReadWatermark watermark = new ProjectReadWatermark();
+        watermark.setUserId(user.getId());
+        watermark.setProjectId(project.getId());
+        watermark.setReadUpTo(now.minusMinutes(15));
+
+        when(userService.getAuthenticatedUser()).thenReturn(user);
+        when(notificationRepository.findFeed(eq(user.getId()), any(Pageable.class)))
+                .thenReturn(List.of(notification, anotherNotification));
+        when(notificationEventRepository.findProjectFeed(eq(user.getId()), eq(0), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(List.of(unreadEvent, readEvent));
+        when(projectReadWatermarkRepository.findByUserId(user.getId())).thenReturn(List.of(watermark));
+
+        NotificationPageReturnDTO result = notificationService.getNotificationsByUser(null, null, 3);
+
+        assertEquals(List.of(100, -7, 101), result.getItems().stream().map(NotificationReturnDTO::getId).toList());
+        assertEquals(NotificationStatus.NOT_READ, result.getItems().get(1).getStatus());
+        assertEquals(101, KeysetCursor.decode(result.getNextCursor()).getId());
+    }
+
+    @Test
+    public void markReadByIds_AdvancesProjectWatermarkForEvents() {
+        NotificationEvent event = projectEvent(7, LocalDateTime.now());
+        when(userService.getAuthenticatedUser()).thenReturn(user);
+        when(notificationEventRepository.findVisibleProjectEvents(user.getId(), List.of(7)))
+                .thenReturn(List.of(event));
+        when(notificationEventRepository.countUnreadProjectEventsUpTo(eq(user.getId()), eq(project.getId()),
+                eq(event.getCreatedAt()), any(LocalDateTime.class))).thenReturn(3L);
+
+        NotificationBulkReadReturnDTO result = notificationService.markReadByIds(List.of(-7));
+
+        assertEquals(3, result.getTotalMarkedRead());
+        verify(projectReadWatermarkRepository).advance(user.getId(), project.getId(), event.getCreatedAt());
+        verify(notificationRepository, never()).updateStatusByUserAndIds(any(), anyList(), any(), any());
+    }
+
+    @Test
+    public void fanOutProjectNotification_SkipsMutedRecipients() {
+        NotificationOutbox event = new NotificationOutbox();
+        event.setId(500);
+        event.setProjectId(project.getId());
+        event.setTemplate(NotificationTemplate.CHAT_MESSAGE);
+        event.setParams(List.of("Maria", "Bom dia"));
+        when(notificationOutboxRepository.findById(event.getId())).thenReturn(Optional.of(event));
+        when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+        when(notificationPreferenceFilter.filterRecipients(eq(project.getId()), eq(NotificationCategory.CHAT),
+                isNull(), anyList())).thenReturn(List.of(user));
+
+        int notified = notificationService.fanOutProjectNotification(event.getId());
+
+        assertEquals(1, notified);
+        verify(unreadNotificationCounter).increment(List.of(user.getId()));
+        verify(sseSubscriptionRegistry).sendToProject(eq(project.getId()), eq(List.of(user.getId())), anyList(),
+                anyString());
+    }
 
-        user.setNotifications(List.of(notification, anotherNotification));
+    @Test
+    public void getUndeliveredNotifications_ReturnsPendingAndMarksThemDelivered() {
+        when(userService.getAuthenticatedUser()).thenReturn(user);
+        when(notificationRepository.findUndelivered(eq(user.getId()), eq(NotificationStatus.NOT_READ), eq(0),
+                any(Pageable.class))).thenReturn(List.of(notification, anotherNotification));
 
-        List<NotificationReturnDTO> result = notificationService.getNotificationsByUser();
+        List<NotificationReturnDTO> result = notificationService.getUndeliveredNotifications(null, null);
 
         assertEquals(2, result.size());
-        assertEquals(notification.getTextNotification(), result.get(0).getTextNotification());
-        assertEquals(anotherNotification.getTextNotification(), result.get(1).getTextNotification());
+        verify(notificationDeliveryTracker).markDelivered(List.of(notification.getId(), anotherNotification.getId()));
+    }
+
+    // Sem preferências cadastradas todos os membros recebem
+    private void allowAllRecipients() {
+        when(notificationPreferenceFilter.filterRecipients(any(), any(), any(), anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(3));
+    }
+
+    private NotificationEvent projectEvent(Integer id, LocalDateTime createdAt) {
+        NotificationEvent event = new NotificationEvent();
+        event.setId(id);
+        event.setProjectId(project.getId());
+        event.setTemplate(NotificationTemplate.TEXT);
+        event.setParams(List.of("Evento " + id));
+        event.setCreatedAt(createdAt);
+        event.setFanOutOnRead(true);
+        return event;
     }
 
     @Test
     public void getNotificationsNotRead_Success() {
         when(userService.getAuthenticatedUser()).thenReturn(user);
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now(), 200);
+        when(notificationRepository.findFeedByStatusBefore(eq(user.getId()), eq(NotificationStatus.NOT_READ),
+                eq(cursor.getTime()), eq(cursor.getId()), any(Pageable.class)))
+                .thenReturn(List.of(notification, anotherNotification));
 
-        notification.setStatus(NotificationStatus.NOT_READ);
-        anotherNotification.setStatus(NotificationStatus.NOT_READ);
-        user.setNotifications(List.of(notification, anotherNotification));
+        NotificationPageReturnDTO result = notificationService.getNotificationsNotRead(cursor.encode(), null);
 
-        List<NotificationReturnDTO> result = notificationService.getNotificationsNotRead();
+        assertEquals(2, result.getItems().size());
+        assertEquals(notification.getTextNotification(), result.getItems().get(0).getTextNotification());
+        assertEquals(anotherNotification.getTextNotification(), result.getItems().get(1).getTextNotification());
+    }
 
-        assertEquals(2, result.size());
-        assertEquals(notification.getTextNotification(), result.get(0).getTextNotification());
-        assertEquals(anotherNotification.getTextNotification(), result.get(1).getTextNotification());
+    @Test
+    public void getNotificationsByUser_WhenCursorIsInvalid() {
+        when(userService.getAuthenticatedUser()).thenReturn(user);
+
+        assertThrows(ResponseStatusException.class,
+                () -> notificationService.getNotificationsByUser(null, "cursor-invalido", null));
     }
 
     @Test
@@ -249,4 +632,13 @@ public class NotificationServiceTest {
 
         assertThrows(ResponseStatusException.class, () -> notificationService.deleteNotification(notification.getId()));
     }
-}
\ No newline at end of file
+
+    private NotificationService newService(long coalesceWindowMs, ProjectNotificationStorage projectStorage,
+            int copyThreshold) {
+        return new NotificationService(notificationRepository, notificationOutboxRepository,
+                notificationEventRepository, projectReadWatermarkRepository, userRepository, projectRepository,
+                sseSubscriptionRegistry, unreadNotificationCounter, notificationBulkWriter,
+                notificationPreferenceFilter, notificationDeliveryLanes, notificationDeliveryTracker, userService,
+                coalesceWindowMs, projectStorage, copyThreshold);
+    }
+}
@@ -27,8 +27,10 @@ import project_management_api.project_management_api.enums.ProjectStatus;
 import project_management_api.project_management_api.enums.RoleName;
 import project_management_api.project_management_api.model.Project;
 import project_management_api.project_management_api.model.User;
+import project_management_api.project_management_api.repository.ChatReadCursorRepository;
 import project_management_api.project_management_api.repository.ProjectRepository;
 import project_management_api.project_management_api.repository.UserRepository;
+import project_management_api.project_management_api.service.ChatMembershipCache;
 import project_management_api.project_management_api.service.NotificationService;
 import project_management_api.project_management_api.service.ProjectService;
 import project_management_api.project_management_api.service.UserService;
@@ -54,6 +56,12 @@ public class ProjectServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ChatReadCursorRepository chatReadCursorRepository;
+
+    @Mock
+    private ChatMembershipCache chatMembershipCache;
+
     @InjectMocks
     private ProjectService projectService;
 
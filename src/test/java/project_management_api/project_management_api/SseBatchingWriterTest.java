@@ -0,0 +1,65 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+
+import project_management_api.project_management_api.service.NotificationDeliveryTracker;
+import project_management_api.project_management_api.service.SseBatchingWriter;
+import reactor.core.publisher.Flux;
+
+public class SseBatchingWriterTest {
+
+    private final NotificationDeliveryTracker deliveryTracker = mock(NotificationDeliveryTracker.class);
+
+    private static ServerSentEvent<String> event(long id, String data) {
+        return ServerSentEvent.builder(data).id(String.valueOf(id)).build();
+    }
+
+    @Test
+    public void frames_GroupsEventsUpToMaxEvents() {
+        SseBatchingWriter writer = new SseBatchingWriter(deliveryTracker, true, 2, 1000);
+
+        List<String> frames = writer.frames(Flux.just(event(1, "a"), event(2, "b"), event(3, "c")))
+                .collectList().block();
+
+        assertEquals(List.of("id:1\ndata:a\n\nid:2\ndata:b\n\n", "id:3\ndata:c\n\n"), frames);
+    }
+
+    @Test
+    public void frames_WritesOneFramePerEventWhenDisabled() {
+        SseBatchingWriter writer = new SseBatchingWriter(deliveryTracker, false, 32, 10);
+
+        List<String> frames = writer.frames(Flux.just(event(1, "a"), event(2, "b"))).collectList().block();
+
+        assertEquals(2, frames.size());
+    }
+
+    @Test
+    public void frames_SplitsMultilineDataAndKeepsEventName() {
+        SseBatchingWriter writer = new SseBatchingWriter(deliveryTracker, false, 32, 10);
+        ServerSentEvent<String> resync = ServerSentEvent.<String>builder().event("resync").data("x").build();
+
+        List<String> frames = writer.frames(Flux.just(event(7, "Matheus:\nOlá"), resync)).collectList().block();
+
+        assertEquals(List.of("id:7\ndata:Matheus:\ndata:Olá\n\n", "event:resync\ndata:x\n\n"), frames);
+    }
+
+    @Test
+    public void frames_KeepsRetryAndCommentsButNotTheDeliveryMarker() {
+        SseBatchingWriter writer = new SseBatchingWriter(deliveryTracker, false, 32, 10);
+        ServerSentEvent<String> hello = ServerSentEvent.<String>builder().retry(Duration.ofSeconds(3))
+                .comment("conectado").data("x").build();
+        ServerSentEvent<String> notification = ServerSentEvent.builder("y").id("8").comment("notification:42")
+                .build();
+
+        List<String> frames = writer.frames(Flux.just(hello, notification)).collectList().block();
+
+        assertEquals(List.of("retry:3000\n:conectado\ndata:x\n\n", "id:8\ndata:y\n\n"), frames);
+    }
+}
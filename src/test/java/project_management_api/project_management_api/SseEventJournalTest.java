@@ -0,0 +1,97 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import project_management_api.project_management_api.service.SseEventJournal;
+
+public class SseEventJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private SseEventJournal journal(int segmentSize, long maxTotalBytes) throws IOException {
+        return new SseEventJournal(true, dir.toString(), segmentSize, maxTotalBytes, 60_000, 100);
+    }
+
+    @Test
+    public void replay_ReturnsOnlyEventsAddressedToUserAfterLastId() throws IOException {
+        SseEventJournal journal = journal(4096, 1 << 20);
+        long first = journal.append(null, List.of(1), null, "a");
+        journal.append(10, List.of(1, 2), null, "b");
+        journal.append(null, List.of(2), null, "c");
+        journal.append(20, List.of(1), null, "d");
+
+        SseEventJournal.Replay replay = journal.replay(1, null, first);
+
+        assertTrue(replay.isComplete());
+        assertEquals(List.of("b", "d"), replay.getEntries().stream().map(SseEventJournal.Entry::getData).toList());
+        assertEquals(List.of("b"),
+                journal.replay(1, 10, first).getEntries().stream().map(SseEventJournal.Entry::getData).toList());
+    }
+
+    @Test
+    public void replay_ReturnsNotificationIdOfRequestingUser() throws IOException {
+        SseEventJournal journal = journal(4096, 1 << 20);
+        long first = journal.append(null, List.of(1), null, "a");
+        journal.append(10, List.of(1, 2), List.of(501, 502), "b");
+
+        assertEquals(502, journal.replay(2, null, first).getEntries().get(0).getNotificationId());
+        assertNull(journal.replay(1, null, first - 1).getEntries().get(0).getNotificationId());
+    }
+
+    @Test
+    public void append_RollsSegmentsAndReplaysAcrossThem() throws IOException {
+        SseEventJournal journal = journal(256, 1 << 20);
+        long first = journal.append(null, List.of(1), null, "evento 0");
+        for (int i = 1; i < 20; i++) {
+            journal.append(null, List.of(1), null, "evento " + i);
+        }
+
+        assertTrue(segmentCount() > 1);
+        assertEquals(19, journal.replay(1, null, first).getEntries().size());
+    }
+
+    @Test
+    public void reclaim_DropsOldestSegmentsOverSizeLimit() throws IOException {
+        SseEventJournal journal = journal(256, 512);
+        long first = journal.append(null, List.of(1), null, "evento 0");
+        for (int i = 1; i < 20; i++) {
+            journal.append(null, List.of(1), null, "evento " + i);
+        }
+
+        journal.reclaim();
+
+        assertEquals(2, segmentCount());
+        assertFalse(journal.replay(1, null, first).isComplete());
+    }
+
+    @Test
+    public void constructor_RecoversIdsFromExistingSegments() throws IOException {
+        SseEventJournal journal = journal(4096, 1 << 20);
+        long last = journal.append(null, List.of(1), null, "antes do reinício");
+        journal.flush();
+
+        SseEventJournal reopened = journal(4096, 1 << 20);
+
+        assertTrue(reopened.append(null, List.of(1), null, "depois do reinício") > last);
+        assertEquals(2, reopened.replay(1, null, last - 1).getEntries().size());
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
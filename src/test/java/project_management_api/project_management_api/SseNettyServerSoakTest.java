@@ -0,0 +1,124 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import project_management_api.project_management_api.service.JwtService;
+import project_management_api.project_management_api.service.NotificationDeliveryTracker;
+import project_management_api.project_management_api.service.SseBatchingWriter;
+import project_management_api.project_management_api.service.SseEventJournal;
+import project_management_api.project_management_api.service.SseNettyServer;
+import project_management_api.project_management_api.service.SseSubscriptionRegistry;
+import project_management_api.project_management_api.service.UserService;
+import reactor.core.Disposable;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+// Teste de carga do SseNettyServer: abre muitas conexões SSE, mede o heap por conexão e confirma que
+// um evento de projeto chega a todas. Não precisa de banco; só roda com -Dsse.soak=true:
+//   mvn test -Dtest=SseNettyServerSoakTest -Dsse.soak=true -Dsse.soak.connections=20000
+// Cliente e servidor ficam no mesmo processo, então o valor por conexão inclui os dois lados (é um teto).
+// Para muitas conexões, aumente o limite de descritores (ulimit -n) antes de rodar.
+@EnabledIfSystemProperty(named = "sse.soak", matches = "true")
+public class SseNettyServerSoakTest {
+
+    private static final String SECRET = "UMA_CHAVE_DE_TESTE_COM_PELO_MENOS_32_BYTES_DE_TAMANHO";
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    public void holdsManyConnectionsAndDeliversToAll() throws Exception {
+        int connections = Integer.getInteger("sse.soak.connections", 10_000);
+
+        SseEventJournal journal = new SseEventJournal(false, journalDir.toString(), 1 << 20, 1 << 30, 60_000, 100);
+        SseSubscriptionRegistry registry = new SseSubscriptionRegistry(journal, 16);
+        SseBatchingWriter writer = new SseBatchingWriter(mock(NotificationDeliveryTracker.class), false, 32, 10);
+
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        UserService userService = mock(UserService.class);
+        when(userService.getUserIdByEmail(anyString()))
+                .thenAnswer(invocation -> Integer.valueOf(invocation.<String>getArgument(0).split("@")[0]));
+
+        SseNettyServer server = new SseNettyServer(registry, writer, jwtService, userService,
+                new SimpleMeterRegistry(), true, 0, 1_000, 60, connections + 1);
+        server.start();
+
+        LoopResources clientLoops = LoopResources.create("soak-client");
+        HttpClient client = HttpClient.create(ConnectionProvider.newConnection()).runOn(clientLoops);
+        List<Disposable> streams = new ArrayList<>(connections);
+        AtomicInteger received = new AtomicInteger();
+
+        try {
+            long heapBefore = usedHeap();
+            long openStart = System.nanoTime();
+
+            List<Integer> userIds = new ArrayList<>(connections);
+            for (int i = 1; i <= connections; i++) {
+                userIds.add(i);
+                String token = jwtService.generateToken(i + "@soak");
+                streams.add(client
+                        .headers(headers -> headers.set(HttpHeaderNames.AUTHORIZATION, "Bearer " + token))
+                        .get()
+                        .uri("http://localhost:" + server.getPort() + "/sse/notifications")
+                        .responseContent()
+                        .asString()
+                        .filter(chunk -> chunk.contains("data:soak"))
+                        .subscribe(chunk -> received.incrementAndGet()));
+            }
+            await(() -> registry.getConnectedUsers() == connections, 120_000);
+            double openSeconds = (System.nanoTime() - openStart) / 1e9;
+
+            long heapAfter = usedHeap();
+            long broadcastStart = System.nanoTime();
+            registry.sendToProject(1, userIds, "soak");
+            await(() -> received.get() == connections, 60_000);
+            double broadcastMs = (System.nanoTime() - broadcastStart) / 1e6;
+
+            System.out.printf("conexões: %d (abertas em %.1f s)%n", connections, openSeconds);
+            System.out.printf("heap por conexão (cliente + servidor): %d bytes%n",
+                    (heapAfter - heapBefore) / connections);
+            System.out.printf("evento entregue a todas as conexões em %.1f ms%n", broadcastMs);
+
+            assertEquals(connections, server.getOpenConnections());
+            assertEquals(connections, received.get());
+        } finally {
+            streams.forEach(Disposable::dispose);
+            server.stop();
+            clientLoops.dispose();
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(200);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void await(BooleanSupplier condition, long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+}
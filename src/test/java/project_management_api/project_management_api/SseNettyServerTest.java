@@ -0,0 +1,129 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import project_management_api.project_management_api.service.JwtService;
+import project_management_api.project_management_api.service.NotificationDeliveryTracker;
+import project_management_api.project_management_api.service.SseBatchingWriter;
+import project_management_api.project_management_api.service.SseEventJournal;
+import project_management_api.project_management_api.service.SseNettyServer;
+import project_management_api.project_management_api.service.SseSubscriptionRegistry;
+import project_management_api.project_management_api.service.UserService;
+import reactor.core.Disposable;
+import reactor.netty.http.client.HttpClient;
+
+public class SseNettyServerTest {
+
+    @TempDir
+    Path journalDir;
+
+    private SseSubscriptionRegistry registry;
+    private JwtService jwtService;
+    private NotificationDeliveryTracker deliveryTracker;
+    private SseNettyServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        SseEventJournal journal = new SseEventJournal(true, journalDir.toString(), 4096, 1 << 20, 60_000, 100);
+        registry = new SseSubscriptionRegistry(journal, 16);
+
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey",
+                "UMA_CHAVE_DE_TESTE_COM_PELO_MENOS_32_BYTES_DE_TAMANHO");
+        UserService userService = mock(UserService.class);
+        when(userService.getUserIdByEmail("matheus@teste.com")).thenReturn(1);
+
+        deliveryTracker = mock(NotificationDeliveryTracker.class);
+        server = new SseNettyServer(registry, new SseBatchingWriter(deliveryTracker, false, 32, 10),
+                jwtService, userService, new SimpleMeterRegistry(), true, 0, 60_000, 60, 10);
+        server.start();
+        client = HttpClient.create().baseUrl("http://localhost:" + server.getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void stream_RejectsMissingToken() {
+        int status = client.get().uri("/sse/notifications").response()
+                .map(response -> response.status().code())
+                .block(Duration.ofSeconds(5));
+
+        assertEquals(401, status);
+    }
+
+    @Test
+    public void stream_DeliversEventsToAuthenticatedUser() throws InterruptedException {
+        CompletableFuture<String> frame = new CompletableFuture<>();
+        CompletableFuture<String> second = new CompletableFuture<>();
+        Disposable stream = open(chunk -> chunk.contains("data:") && (frame.complete(chunk) || second.complete(chunk)));
+        try {
+            await(() -> registry.getConnectedUsers() == 1);
+            registry.sendToProject(10, List.of(1), "Projeto| ACTIVE\nTask criada");
+
+            assertTrue(frame.join().contains("data:Projeto| ACTIVE\ndata:Task criada\n\n"));
+            // Com o stream ainda aberto
+            assertEquals(1, server.getOpenConnections());
+
+            // A conexão continua aberta para os eventos seguintes
+            registry.sendToProject(10, List.of(1), "Segundo evento");
+            assertTrue(second.join().contains("data:Segundo evento\n\n"));
+        } finally {
+            stream.dispose();
+        }
+    }
+
+    @Test
+    public void stream_AcknowledgesDeliveryAfterTheWrite() throws InterruptedException {
+        CompletableFuture<String> frame = new CompletableFuture<>();
+        Disposable stream = open(chunk -> chunk.contains("data:") && frame.complete(chunk));
+        try {
+            await(() -> registry.getConnectedUsers() == 1);
+            registry.sendToUser(1, 42, "Nova notificação");
+
+            frame.join();
+            verify(deliveryTracker, timeout(5_000)).markDelivered(List.of(42));
+        } finally {
+            stream.dispose();
+        }
+    }
+
+    private Disposable open(Predicate<String> onChunk) {
+        String token = jwtService.generateToken("matheus@teste.com");
+        return client
+                .headers(headers -> headers.set(HttpHeaderNames.AUTHORIZATION, "Bearer " + token))
+                .get().uri("/sse/notifications")
+                .responseContent().asString()
+                .subscribe(onChunk::test);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+}
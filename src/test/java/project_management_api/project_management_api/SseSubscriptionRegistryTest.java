@@ -0,0 +1,154 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.codec.ServerSentEvent;
+
+import project_management_api.project_management_api.service.SseEventJournal;
+import project_management_api.project_management_api.service.SseSubscriptionRegistry;
+import reactor.core.Disposable;
+
+public class SseSubscriptionRegistryTest {
+
+    @TempDir
+    Path journalDir;
+
+    private SseSubscriptionRegistry registry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        SseEventJournal journal = new SseEventJournal(true, journalDir.toString(), 4096, 1 << 20, 60_000, 100);
+        registry = new SseSubscriptionRegistry(journal, 2);
+    }
+
+    @Test
+    public void sendToProject_OnlyDeliversToMembers() {
+        List<String> member = new ArrayList<>();
+        List<String> outsider = new ArrayList<>();
+        registry.subscribe(1, null, null).map(ServerSentEvent::data).subscribe(member::add);
+        registry.subscribe(2, null, null).map(ServerSentEvent::data).subscribe(outsider::add);
+
+        registry.sendToProject(10, List.of(1), "evento");
+
+        assertEquals(List.of("evento"), member);
+        assertEquals(0, outsider.size());
+    }
+
+    @Test
+    public void sendToProject_RespectsProjectFilter() {
+        List<String> received = new ArrayList<>();
+        registry.subscribe(1, 20, null).map(ServerSentEvent::data).subscribe(received::add);
+
+        registry.sendToProject(10, List.of(1), "outro projeto");
+        registry.sendToProject(20, List.of(1), "mesmo projeto");
+
+        assertEquals(List.of("mesmo projeto"), received);
+    }
+
+    @Test
+    public void sendToUser_DropsWhenBufferIsFull() {
+        // Sem assinante consumindo, o buffer de 2 posições transborda no terceiro evento
+        registry.subscribe(1, null, null);
+
+        registry.sendToUser(1, "a");
+        registry.sendToUser(1, "b");
+        registry.sendToUser(1, "c");
+
+        assertEquals(1, registry.getDroppedEvents());
+    }
+
+    @Test
+    public void subscribe_RemovesSubscriberOnDisconnect() {
+        Disposable connection = registry.subscribe(1, null, null).subscribe();
+        assertEquals(1, registry.getConnectedUsers());
+
+        connection.dispose();
+
+        assertEquals(0, registry.getConnectedUsers());
+    }
+
+    @Test
+    public void subscribe_ReplaysMissedEventsAfterLastEventId() {
+        List<ServerSentEvent<String>> first = new ArrayList<>();
+        Disposable connection = registry.subscribe(1, null, null).subscribe(first::add);
+        registry.sendToUser(1, "a");
+        connection.dispose();
+
+        // Emitidos enquanto o cliente estava desconectado
+        registry.sendToUser(1, "b");
+        registry.sendToProject(10, List.of(1, 2), "c");
+        registry.sendToUser(2, "de outro usuário");
+
+        List<String> replayed = new ArrayList<>();
+        registry.subscribe(1, null, Long.parseLong(first.get(0).id()))
+                .map(ServerSentEvent::data)
+                .subscribe(replayed::add);
+        registry.sendToUser(1, "d");
+
+        assertEquals(List.of("b", "c", "d"), replayed);
+    }
+
+    @Test
+    public void sendToProject_CarriesEachMembersNotificationId() {
+        List<ServerSentEvent<String>> first = new ArrayList<>();
+        List<ServerSentEvent<String>> second = new ArrayList<>();
+        registry.subscribe(1, null, null).subscribe(first::add);
+        registry.subscribe(2, null, null).subscribe(second::add);
+
+        registry.sendToProject(10, List.of(1, 2), List.of(501, 502), "evento");
+
+        assertEquals(501, SseSubscriptionRegistry.notificationIdOf(first.get(0)));
+        assertEquals(502, SseSubscriptionRegistry.notificationIdOf(second.get(0)));
+        assertEquals(first.get(0).id(), second.get(0).id());
+    }
+
+    @Test
+    public void send_DeliversConcurrentEventsInJournalOrder() throws Exception {
+        registry = new SseSubscriptionRegistry(
+                new SseEventJournal(true, journalDir.toString(), 1 << 20, 1 << 24, 60_000, 100), 10_000);
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+        registry.subscribe(1, null, null).subscribe(event -> ids.add(Long.parseLong(event.id())));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            boolean project = thread % 2 == 0;
+            executor.execute(() -> {
+                for (int i = 0; i < 500; i++) {
+                    if (project) {
+                        registry.sendToProject(10, List.of(1, 2), "projeto");
+                    } else {
+                        registry.sendToUser(1, "direta");
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(2000, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i), "evento " + ids.get(i) + " entregue depois de " + ids.get(i - 1));
+        }
+    }
+
+    @Test
+    public void subscribe_SignalsResyncWhenLastEventIdIsUnknown() {
+        List<ServerSentEvent<String>> received = new ArrayList<>();
+        registry.subscribe(1, null, 1L).subscribe(received::add);
+
+        assertEquals("resync", received.get(0).event());
+    }
+}
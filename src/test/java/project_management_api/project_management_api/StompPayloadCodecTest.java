@@ -0,0 +1,110 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import project_management_api.project_management_api.config.StompPayloadCodec;
+
+public class StompPayloadCodecTest {
+
+    private static final byte[] JSON = "{\"id\":1,\"text\":\"Olá\",\"projectId\":10}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private ChannelInterceptor inbound;
+    private ChannelInterceptor outbound;
+
+    @BeforeEach
+    void setUp() {
+        StompPayloadCodec codec = new StompPayloadCodec(new SimpleMeterRegistry(), true);
+        inbound = codec.inboundInterceptor();
+        outbound = codec.outboundInterceptor();
+    }
+
+    @Test
+    public void outbound_EncodesJsonAsCborForSessionThatAskedForIt() throws Exception {
+        inbound.preSend(connect("s1", "cbor", true), channel);
+
+        Message<?> encoded = outbound.preSend(broadcast("s1", JSON), channel);
+
+        assertEquals(StompPayloadCodec.Codec.CBOR.getOutboundType(),
+                encoded.getHeaders().get(MessageHeaders.CONTENT_TYPE));
+        JsonNode decoded = new ObjectMapper(new CBORFactory()).readTree((byte[]) encoded.getPayload());
+        assertEquals(new ObjectMapper().readTree(JSON), decoded);
+    }
+
+    @Test
+    public void outbound_ReusesEncodingForSubscribersOfSameBroadcast() {
+        inbound.preSend(connect("s1", "cbor", true), channel);
+        inbound.preSend(connect("s2", "cbor", true), channel);
+
+        Message<?> first = outbound.preSend(broadcast("s1", JSON), channel);
+        Message<?> second = outbound.preSend(broadcast("s2", JSON), channel);
+
+        assertSame(first.getPayload(), second.getPayload());
+    }
+
+    @Test
+    public void outbound_KeepsJsonForSockJsAndJsonSessions() {
+        inbound.preSend(connect("sockjs", "cbor", false), channel);
+        inbound.preSend(connect("json", null, true), channel);
+
+        assertSame(JSON, outbound.preSend(broadcast("sockjs", JSON), channel).getPayload());
+        assertSame(JSON, outbound.preSend(broadcast("json", JSON), channel).getPayload());
+    }
+
+    @Test
+    public void disconnect_ForgetsSessionCodec() {
+        inbound.preSend(connect("s1", "smile", true), channel);
+        StompHeaderAccessor disconnect = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        disconnect.setSessionId("s1");
+        inbound.preSend(MessageBuilder.createMessage(new byte[0], disconnect.getMessageHeaders()), channel);
+
+        assertSame(JSON, outbound.preSend(broadcast("s1", JSON), channel).getPayload());
+    }
+
+    private static Message<byte[]> connect(String sessionId, String codec, boolean nativeWebSocket) {
+        StompHeaderAccessor headers = StompHeaderAccessor.create(StompCommand.CONNECT);
+        headers.setSessionId(sessionId);
+        if (codec != null) {
+            headers.setNativeHeader(StompPayloadCodec.CODEC_HEADER, codec);
+        }
+        Map<String, Object> attributes = new HashMap<>();
+        if (nativeWebSocket) {
+            attributes.put(StompPayloadCodec.NATIVE_SESSION_ATTRIBUTE, Boolean.TRUE);
+        }
+        headers.setSessionAttributes(attributes);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+
+    private static Message<byte[]> broadcast(String sessionId, byte[] payload) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setDestination("/topic/project/10");
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(payload, headers.getMessageHeaders());
+    }
+}
@@ -0,0 +1,94 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import project_management_api.project_management_api.config.StompSlowConsumerGuard;
+
+public class StompSlowConsumerGuardTest {
+
+    private final MessageChannel channel = mock(MessageChannel.class);
+    private WebSocketSession rawSession;
+
+    @Test
+    public void preSend_DropsTopicMessagesForStalledSession() throws Exception {
+        StompSlowConsumerGuard guard = new StompSlowConsumerGuard(new SimpleMeterRegistry(),
+                StompSlowConsumerGuard.Policy.DROP, 0);
+        WebSocketSession session = connect(guard, "s1");
+
+        CountDownLatch stalled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            stalled.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(rawSession).sendMessage(any());
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> send(session));
+        Thread.sleep(50);
+
+        assertNull(guard.preSend(message("s1", "/topic/project/10"), channel));
+        assertNotNull(guard.preSend(message("s1", "/user/queue/chat-read"), channel));
+        assertNotNull(guard.preSend(message("s2", "/topic/project/10"), channel));
+
+        stalled.countDown();
+        write.join();
+        assertNotNull(guard.preSend(message("s1", "/topic/project/10"), channel));
+    }
+
+    @Test
+    public void preSend_KeepsEverythingWithDisconnectPolicy() throws Exception {
+        StompSlowConsumerGuard guard = new StompSlowConsumerGuard(new SimpleMeterRegistry(),
+                StompSlowConsumerGuard.Policy.DISCONNECT, 0);
+        connect(guard, "s1");
+
+        Message<?> message = message("s1", "/topic/project/10");
+        assertSame(message, guard.preSend(message, channel));
+    }
+
+    private WebSocketSession connect(StompSlowConsumerGuard guard, String sessionId) throws Exception {
+        rawSession = mock(WebSocketSession.class);
+        when(rawSession.getId()).thenReturn(sessionId);
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+
+        guard.decorate(handler).afterConnectionEstablished(rawSession);
+
+        ArgumentCaptor<WebSocketSession> tracked = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(tracked.capture());
+        return tracked.getValue();
+    }
+
+    private static void send(WebSocketSession session) {
+        try {
+            session.sendMessage(new TextMessage("frame"));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Message<?> message(String sessionId, String destination) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+}
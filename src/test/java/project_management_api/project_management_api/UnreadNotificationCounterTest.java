@@ -0,0 +1,88 @@
+package project_management_api.project_management_api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import project_management_api.project_management_api.enums.NotificationStatus;
+import project_management_api.project_management_api.repository.NotificationEventRepository;
+import project_management_api.project_management_api.repository.NotificationRepository;
+import project_management_api.project_management_api.service.UnreadNotificationCounter;
+
+@ExtendWith(MockitoExtension.class)
+public class UnreadNotificationCounterTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationEventRepository notificationEventRepository;
+
+    private UnreadNotificationCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new UnreadNotificationCounter(notificationRepository, notificationEventRepository, 60_000);
+    }
+
+    @Test
+    public void get_LoadsFromDatabaseOnlyOnce() {
+        when(notificationRepository.countByUserDestin_IdAndStatus(1, NotificationStatus.NOT_READ)).thenReturn(3L);
+
+        assertEquals(3, counter.get(1));
+        counter.increment(List.of(1, 2));
+        counter.decrement(1, 2);
+
+        assertEquals(2, counter.get(1));
+        verify(notificationRepository, times(1)).countByUserDestin_IdAndStatus(1, NotificationStatus.NOT_READ);
+    }
+
+    @Test
+    public void decrement_BelowZeroReloadsFromDatabase() {
+        when(notificationRepository.countByUserDestin_IdAndStatus(1, NotificationStatus.NOT_READ)).thenReturn(1L, 0L);
+
+        counter.get(1);
+        counter.decrement(1, 5);
+
+        assertEquals(0, counter.get(1));
+        verify(notificationRepository, times(2)).countByUserDestin_IdAndStatus(1, NotificationStatus.NOT_READ);
+    }
+
+    @Test
+    public void get_DoesNotCacheValueChangedDuringLoad() {
+        when(notificationRepository.countByUserDestin_IdAndStatus(1, NotificationStatus.NOT_READ))
+                .thenAnswer(invocation -> {
+                    // Notificação confirmada enquanto o COUNT roda: pode ou não estar na contagem
+                    counter.increment(1);
+                    return 3L;
+                })
+                .thenReturn(4L);
+
+        assertEquals(3, counter.get(1));
+        assertEquals(4, counter.get(1));
+        assertEquals(4, counter.get(1));
+        verify(notificationRepository, times(2)).countByUserDestin_IdAndStatus(1, NotificationStatus.NOT_READ);
+    }
+
+    @Test
+    public void get_ReloadsAfterTtl() {
+        counter = new UnreadNotificationCounter(notificationRepository, notificationEventRepository, 0);
+        when(notificationRepository.countByUserDestin_IdAndStatus(1, NotificationStatus.NOT_READ)).thenReturn(3L, 5L);
+
+        counter.get(1);
+        counter.increment(1);
+
+        // Sem TTL, uma divergência para cima ficaria no cache até algum decremento passar de zero
+        assertEquals(5, counter.get(1));
+        verify(notificationRepository, times(2)).countByUserDestin_IdAndStatus(1, NotificationStatus.NOT_READ);
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -14,7 +15,6 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -57,11 +57,13 @@ public class UserServiceTest {
     @Mock
     private JwtService jwt;
 
-    @InjectMocks
     private UserService userService;
 
     @BeforeEach
     void before() {
+        userService = new UserService(userRepository, bcrypt, authenticationManager, jwt, notificationService,
+                60_000, 10_000);
+
         user = new User();
         user.setId(1);
         user.setName("User");
@@ -263,4 +265,43 @@ public class UserServiceTest {
         verify(userRepository).delete(user);
     }
 
+    @Test
+    public void getUserIdByEmail_CachesUntilTheUserIsDeleted() {
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+
+        assertEquals(1, userService.getUserIdByEmail(user.getEmail()));
+        assertEquals(1, userService.getUserIdByEmail(user.getEmail()));
+        verify(userRepository, times(1)).findByEmail(user.getEmail());
+
+        userService.deleteUser(user.getId());
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.empty());
+
+        assertThrows(ResponseStatusException.class, () -> userService.getUserIdByEmail(user.getEmail()));
+    }
+
+    @Test
+    public void getUserIdByEmail_ReloadsAfterTtl() {
+        userService = new UserService(userRepository, bcrypt, authenticationManager, jwt, notificationService,
+                0, 10_000);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        userService.getUserIdByEmail(user.getEmail());
+        userService.getUserIdByEmail(user.getEmail());
+
+        verify(userRepository, times(2)).findByEmail(user.getEmail());
+    }
+
+    @Test
+    public void getUserIdByEmail_DoesNotCacheBeyondMaxSize() {
+        userService = new UserService(userRepository, bcrypt, authenticationManager, jwt, notificationService,
+                60_000, 0);
+        when(userRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+
+        userService.getUserIdByEmail(user.getEmail());
+        userService.getUserIdByEmail(user.getEmail());
+
+        verify(userRepository, times(2)).findByEmail(user.getEmail());
+    }
+
 }
\ No newline at end of file